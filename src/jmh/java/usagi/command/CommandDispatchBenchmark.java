@@ -0,0 +1,50 @@
+package usagi.command;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import usagi.exception.UsagiException;
+import usagi.storage.Storage;
+import usagi.task.TaskList;
+
+/**
+ * Measures the cost of turning an input line into a command object.
+ *
+ * The factory is padded with extra dummy commands to show that dispatch time
+ * stays flat as the number of registered commands grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CommandDispatchBenchmark {
+
+    @Param({"0", "50", "500"})
+    public int extraCommands;
+
+    @Param({"list", "todo read the bookmarked page", "upcoming 14"})
+    public String input;
+
+    private CommandFactory factory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        factory = new CommandFactory(new TaskList(), new Storage("build/jmh-tmp/usagi.txt"));
+        for (int i = 0; i < extraCommands; i++) {
+            factory.register("dummy" + i, (tasks, storage, in) -> new ExitCommand());
+        }
+    }
+
+    @Benchmark
+    public Command dispatch() throws UsagiException {
+        return factory.createCommand(input);
+    }
+}
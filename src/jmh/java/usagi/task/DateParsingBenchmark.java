@@ -0,0 +1,88 @@
+package usagi.task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the single-pass date scanner with the previous exception-driven parser.
+ *
+ * The inputs cover the first shape tried by the old parser (ISO), shapes only
+ * reached after several failed attempts, an input that cannot be parsed at all,
+ * and relative phrases, which the old parser rejected after trying every pattern.
+ * The {@code uncachedNow} benchmark resolves relative phrases against a freshly
+ * read clock, to show the cost the cached {@link DateAnchor} avoids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateParsingBenchmark {
+
+    @Param({"2024-12-25T14:30", "2024-12-25 1430", "12/25/2024 1430", "25/12/2024", "tmrw!",
+            "tmr", "next fri 1400", "in 3 days", "end of month"})
+    public String input;
+
+    @Benchmark
+    public Object scanner() {
+        try {
+            return Task.parseDateTimeFlexible(input);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object uncachedNow() {
+        try {
+            return Task.parseDateTimeFlexible(input, LocalDate.now());
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object legacy() {
+        try {
+            return legacyParseDateTimeFlexible(input);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    private static LocalDate legacyParseDateFlexible(String raw) {
+        try { return LocalDate.parse(raw); } catch (DateTimeParseException ignore) {}
+
+        for (String pattern : new String[]{"d/M/yyyy", "M/d/yyyy"}) {
+            try {
+                return LocalDate.parse(raw, DateTimeFormatter.ofPattern(pattern));
+            } catch (DateTimeParseException ignore) {}
+        }
+        throw new IllegalArgumentException("Cannot parse date: " + raw);
+    }
+
+    private static LocalDateTime legacyParseDateTimeFlexible(String raw) {
+        try { return LocalDateTime.parse(raw); } catch (DateTimeParseException ignore) {}
+
+        for (String pattern : new String[]{"yyyy-MM-dd HHmm", "d/M/yyyy HHmm", "M/d/yyyy HHmm"}) {
+            try {
+                return LocalDateTime.parse(raw, DateTimeFormatter.ofPattern(pattern));
+            } catch (DateTimeParseException ignore) {}
+        }
+
+        try {
+            return legacyParseDateFlexible(raw).atStartOfDay();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cannot parse date-time: " + raw);
+        }
+    }
+}
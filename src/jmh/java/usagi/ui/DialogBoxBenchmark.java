@@ -0,0 +1,68 @@
+package usagi.ui;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.control.Label;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the cost of creating a chat bubble: loading the previous FXML layout,
+ * and building a dialog box in code.
+ *
+ * Runs headless on Monocle. The nodes are never attached to a scene, so they
+ * can be created on the benchmark thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DialogBoxBenchmark {
+    private final Message message = Message.reply("Got it. I've added this task:\n  [T][ ] read book");
+
+    @Setup
+    public void setUp() {
+        HeadlessFx.start();
+    }
+
+    @Benchmark
+    public Object fxml() throws IOException {
+        LegacyDialogBox box = new LegacyDialogBox();
+        box.dialog.setText(message.getText());
+        return box;
+    }
+
+    @Benchmark
+    public Object programmatic() {
+        DialogBox box = new DialogBox();
+        box.show(message, null);
+        return box;
+    }
+
+    /**
+     * The dialog box as it was built before, by loading its FXML layout every time.
+     */
+    static class LegacyDialogBox extends HBox {
+        @FXML
+        private Label dialog;
+        @FXML
+        private ImageView displayPicture;
+
+        LegacyDialogBox() throws IOException {
+            FXMLLoader fxmlLoader = new FXMLLoader(LegacyDialogBox.class.getResource("LegacyDialogBox.fxml"));
+            fxmlLoader.setController(this);
+            fxmlLoader.setRoot(this);
+            fxmlLoader.load();
+        }
+    }
+}
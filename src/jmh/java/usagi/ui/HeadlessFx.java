@@ -0,0 +1,36 @@
+package usagi.ui;
+
+import java.util.concurrent.CountDownLatch;
+
+import javafx.application.Platform;
+
+/**
+ * Starts the JavaFX toolkit without a display, using the Monocle headless platform.
+ */
+final class HeadlessFx {
+    private static boolean isStarted;
+
+    private HeadlessFx() {
+    }
+
+    /**
+     * Starts the toolkit once per JVM and waits until it is running.
+     */
+    static synchronized void start() {
+        if (isStarted) {
+            return;
+        }
+        System.setProperty("glass.platform", "Monocle");
+        System.setProperty("monocle.platform", "Headless");
+        System.setProperty("prism.order", "sw");
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        try {
+            started.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while starting JavaFX", e);
+        }
+        isStarted = true;
+    }
+}
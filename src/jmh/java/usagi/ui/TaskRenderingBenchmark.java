@@ -0,0 +1,113 @@
+package usagi.ui;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javafx.scene.Scene;
+import javafx.scene.layout.StackPane;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextFlow;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import usagi.command.CommandResult;
+import usagi.task.TaskView;
+
+/**
+ * Measures rendering a large "list" reply: building the text nodes, applying CSS
+ * and laying them out, with inline styles on every node as before and with the
+ * style classes from dialog-box.css.
+ *
+ * Runs headless on Monocle. The scene is never shown, so it can be built on the
+ * benchmark thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TaskRenderingBenchmark {
+    private static final double WIDTH = 300;
+
+    @Param({"100", "1000"})
+    public int size;
+
+    private CommandResult result;
+    private String stylesheet;
+
+    @Setup
+    public void setUp() {
+        HeadlessFx.start();
+        stylesheet = TaskRenderingBenchmark.class.getResource("/css/dialog-box.css").toExternalForm();
+        CommandResult.Builder builder = CommandResult.builder();
+        builder.text("Here are the tasks in your list:");
+        for (int i = 1; i <= size; i++) {
+            TaskView task = i % 2 == 0
+                    ? new TaskView("D", i % 3 == 0, "return book " + i, "(by: Feb 14 2024 18:00)")
+                    : new TaskView("T", false, "read book " + i, "");
+            builder.task(i + ".", task);
+        }
+        result = builder.build();
+    }
+
+    @Benchmark
+    public Object inlineStyles() {
+        return render(createInlineStyledText(result));
+    }
+
+    @Benchmark
+    public Object styleClasses() {
+        return render(DialogBox.createFormattedTaskText(result));
+    }
+
+    private Object render(TextFlow flow) {
+        flow.setMaxWidth(WIDTH);
+        StackPane root = new StackPane(flow);
+        Scene scene = new Scene(root, WIDTH, 600);
+        scene.getStylesheets().add(stylesheet);
+        root.applyCss();
+        root.layout();
+        return flow.getHeight();
+    }
+
+    /**
+     * The task text as it was built before: one node per marker, title, detail and
+     * line break, each styled inline.
+     */
+    private static TextFlow createInlineStyledText(CommandResult result) {
+        TextFlow textFlow = new TextFlow();
+        List<CommandResult.Line> lines = result.getLines();
+        for (int i = 0; i < lines.size(); i++) {
+            CommandResult.Line line = lines.get(i);
+            if (i > 0) {
+                textFlow.getChildren().add(new Text("\n"));
+            }
+            Text labelText = new Text(line.getText());
+            labelText.setStyle("-fx-fill: #2e2e2e;");
+            textFlow.getChildren().add(labelText);
+            if (!line.isTask()) {
+                continue;
+            }
+
+            TaskView task = line.getTask();
+            Text typeText = new Text(task.typeMarker());
+            typeText.setStyle("-fx-font-weight: bold; -fx-fill: #2e2e2e; -fx-font-size: 15px;");
+            Text statusText = new Text(task.statusMarker());
+            statusText.setStyle("-fx-font-weight: bold; -fx-fill: #2e2e2e; -fx-font-size: 15px;");
+            Text titleText = new Text(" " + task.getTitle());
+            titleText.setStyle("-fx-font-weight: bold; -fx-fill: #2e2e2e; -fx-font-size: 15px;");
+            textFlow.getChildren().addAll(typeText, statusText, titleText);
+            if (!task.getDetails().isEmpty()) {
+                Text detailsText = new Text(" " + task.getDetails());
+                detailsText.setStyle("-fx-fill: #2e2e2e;");
+                textFlow.getChildren().add(detailsText);
+            }
+        }
+        return textFlow;
+    }
+}
@@ -0,0 +1,200 @@
+package usagi.ui;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import javafx.application.Platform;
+import javafx.event.ActionEvent;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.stage.Stage;
+
+/**
+ * Drives the GUI through scripted sessions and reports how long each reply takes
+ * to appear on screen and how many nodes the window holds.
+ *
+ * The window is started the way {@link Main} starts it, on the headless Monocle
+ * platform, with an empty task file in a temporary directory. Each command is
+ * typed into the input field and sent with an action event, which runs
+ * {@link MainWindow}'s input handler. Its latency lasts until the end of the
+ * first layout pulse after the reply has replaced its placeholder, so it covers
+ * running the command as well as rendering the reply.
+ *
+ * Run with {@code ./gradlew uiBenchmark}; the number of tasks added in the first
+ * session can be given as the only argument (1,000 by default).
+ */
+public final class UiSessionBenchmark {
+    private static final long TIMEOUT_SECONDS = 60;
+
+    private final Main main = new Main();
+    private final Stage stage = new Stage();
+    private TextField input;
+    private ListView<Message> transcript;
+    private Scene scene;
+
+    // Read and written on the JavaFX application thread only
+    private boolean isAwaiting;
+    private long sentNanos;
+    private CountDownLatch rendered;
+    private final List<Sample> samples = new ArrayList<>();
+
+    private UiSessionBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        Path dir = Files.createTempDirectory("usagi-ui-benchmark");
+        System.setProperty("usagi.data", dir.resolve("usagi.txt").toString());
+
+        HeadlessFx.start();
+        Platform.setImplicitExit(false);
+        UiSessionBenchmark benchmark = onFx(UiSessionBenchmark::new);
+        onFx(benchmark::open);
+        benchmark.awaitLoaded();
+
+        System.out.println(String.format("%-8s %8s %8s %8s %8s %8s %8s", "session", "messages",
+                "p50 ms", "p95 ms", "max ms", "nodes", "max nodes"));
+        benchmark.run("add", tasks, i -> "todo task " + i);
+        benchmark.run("list", Math.max(1, tasks / 50), i -> "list");
+        benchmark.run("error", Math.max(1, tasks / 5), i -> i % 2 == 0 ? "mark " + (tasks + i) : "frobnicate " + i);
+
+        onFx(benchmark::close);
+        Platform.exit();
+    }
+
+    /**
+     * Shows the window and starts listening for layout pulses.
+     */
+    private Void open() {
+        main.start(stage);
+        scene = stage.getScene();
+        input = (TextField) scene.lookup("#userInput");
+        @SuppressWarnings("unchecked")
+        ListView<Message> list = (ListView<Message>) scene.lookup("#transcript");
+        transcript = list;
+        scene.addPostLayoutPulseListener(this::afterLayout);
+        return null;
+    }
+
+    private Void close() {
+        main.stop();
+        stage.hide();
+        return null;
+    }
+
+    private void awaitLoaded() throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (onFx(this::isWaitingForReply)) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Usagi did not load within " + TIMEOUT_SECONDS + " s");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Sends the given number of commands one after another, each once the reply to
+     * the previous one is on screen, and prints a summary of the session.
+     */
+    private void run(String name, int count, IntFunction<String> command) throws Exception {
+        for (int i = 1; i <= count; i++) {
+            String text = command.apply(i);
+            CountDownLatch latch = onFx(() -> send(text));
+            if (!latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("No reply to '" + text + "' within " + TIMEOUT_SECONDS + " s");
+            }
+        }
+        System.out.println(onFx(() -> summarize(name)));
+    }
+
+    private CountDownLatch send(String text) {
+        rendered = new CountDownLatch(1);
+        isAwaiting = true;
+        sentNanos = System.nanoTime();
+        input.setText(text);
+        input.fireEvent(new ActionEvent());
+        Platform.requestNextPulse();
+        return rendered;
+    }
+
+    /**
+     * Records a sample once the reply being waited for has been laid out.
+     */
+    private void afterLayout() {
+        if (!isAwaiting || isWaitingForReply()) {
+            return;
+        }
+        isAwaiting = false;
+        samples.add(new Sample(System.nanoTime() - sentNanos, countNodes(scene.getRoot())));
+        rendered.countDown();
+    }
+
+    private boolean isWaitingForReply() {
+        List<Message> items = transcript.getItems();
+        return items.isEmpty() || items.get(items.size() - 1).getKind() == Message.Kind.PENDING;
+    }
+
+    private static int countNodes(Node node) {
+        int count = 1;
+        if (node instanceof Parent) {
+            for (Node child : ((Parent) node).getChildrenUnmodifiable()) {
+                count += countNodes(child);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Summarizes the samples recorded since the last summary, and discards them.
+     */
+    private String summarize(String name) {
+        long[] nanos = samples.stream().mapToLong(sample -> sample.nanos).sorted().toArray();
+        int[] nodes = samples.stream().mapToInt(sample -> sample.nodes).toArray();
+        samples.clear();
+        return String.format("%-8s %8d %8.2f %8.2f %8.2f %8.0f %8d", name, nanos.length,
+                millis(percentile(nanos, 50)), millis(percentile(nanos, 95)), millis(nanos[nanos.length - 1]),
+                Arrays.stream(nodes).average().orElse(0), Arrays.stream(nodes).max().orElse(0));
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Runs a task on the JavaFX application thread and waits for its result.
+     */
+    private static <T> T onFx(Callable<T> task) throws Exception {
+        FutureTask<T> future = new FutureTask<>(task);
+        Platform.runLater(future);
+        return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * The latency of one reply and the number of nodes in the window once it was shown.
+     */
+    private static final class Sample {
+        private final long nanos;
+        private final int nodes;
+
+        Sample(long nanos, int nodes) {
+            this.nanos = nanos;
+            this.nodes = nodes;
+        }
+    }
+}
@@ -1,9 +1,8 @@
 package usagi.command;
 
-import usagi.task.TaskList;
+import usagi.service.TaskService;
 import usagi.task.Task;
-import usagi.task.Deadline;
-import usagi.storage.Storage;
+import usagi.task.TaskView;
 import usagi.exception.UsagiException;
 import java.time.LocalDateTime;
 
@@ -11,23 +10,23 @@ import java.time.LocalDateTime;
  * Command to add a new deadline task.
  */
 public class AddDeadlineCommand implements Command {
-    private final TaskList tasks;
-    private final Storage storage;
+    public static final String KEYWORD = "deadline";
+    
+    private final TaskService service;
     private final String input;
     
-    public AddDeadlineCommand(TaskList tasks, Storage storage, String input) {
-        this.tasks = tasks;
-        this.storage = storage;
+    public AddDeadlineCommand(TaskService service, String input) {
+        this.service = service;
         this.input = input;
     }
     
     @Override
-    public String execute() throws UsagiException {
+    public CommandResult execute() throws UsagiException {
         if (!input.trim().contains(" ")) {
             throw new UsagiException("deadline must be followed by a description and a /by");
         }
         
-        String[] parts = input.substring(9).split("/by", 2); // Remove "deadline "
+        String[] parts = input.substring(KEYWORD.length()).split("/by", 2);
         if (parts.length != 2) {
             throw new UsagiException("deadline must include /by followed by date/time");
         }
@@ -43,10 +42,11 @@ public class AddDeadlineCommand implements Command {
         }
         
         LocalDateTime by = Task.parseDateTimeFlexible(rawDateTime);
-        Task task = new Deadline(title, false, by);
-        tasks.add(task);
-        storage.save(tasks.all());
-        return "Got it. I've added this task:\n  " + task.toString() + 
-               "\nNow you have " + tasks.size() + " task(s) in the list.";
+        TaskView task = service.addDeadline(title, by);
+        CommandResult.Builder result = CommandResult.builder();
+        result.text("Got it. I've added this task:");
+        result.task("  ", task);
+        result.text("Now you have " + service.size() + " task(s) in the list.");
+        return result.build();
     }
 }
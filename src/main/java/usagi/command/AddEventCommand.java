@@ -1,9 +1,8 @@
 package usagi.command;
 
-import usagi.task.TaskList;
+import usagi.service.TaskService;
 import usagi.task.Task;
-import usagi.task.Event;
-import usagi.storage.Storage;
+import usagi.task.TaskView;
 import usagi.exception.UsagiException;
 import java.time.LocalDateTime;
 
@@ -11,18 +10,18 @@ import java.time.LocalDateTime;
  * Command to add a new event task.
  */
 public class AddEventCommand implements Command {
-    private final TaskList tasks;
-    private final Storage storage;
+    public static final String KEYWORD = "event";
+    
+    private final TaskService service;
     private final String input;
     
-    public AddEventCommand(TaskList tasks, Storage storage, String input) {
-        this.tasks = tasks;
-        this.storage = storage;
+    public AddEventCommand(TaskService service, String input) {
+        this.service = service;
         this.input = input;
     }
     
     @Override
-    public String execute() throws UsagiException {
+    public CommandResult execute() throws UsagiException {
         if (!input.trim().contains(" ")) {
             throw new UsagiException("event must be followed by a description and a /from and /to");
         }
@@ -59,10 +58,12 @@ public class AddEventCommand implements Command {
         LocalDateTime from = Task.parseDateTimeFlexible(rawFrom);
         LocalDateTime to = Task.parseDateTimeFlexible(rawTo);
         
-        Task task = new Event(title, false, from, to);
-        tasks.add(task);
-        storage.save(tasks.all());
-        return "Got it. I've added this task:\n  " + task.toString() + 
-               "\nNow you have " + tasks.size() + " task(s) in the list.";
+        TaskView task = service.addEvent(title, from, to);
+        CommandResult.Builder result = CommandResult.builder();
+        result.text("Got it. I've added this task:");
+        result.task("  ", task);
+        result.text("Now you have " + service.size() + " task(s) in the list.");
+        ConflictsCommand.addConflictWarning(result, service.conflictsWith(service.size(), from, to));
+        return result.build();
     }
 }
@@ -1,10 +1,11 @@
 package usagi.command;
 
-import usagi.task.TaskList;
+import usagi.service.TaskService;
 import usagi.task.RecurringTask;
 import usagi.task.Task;
-import usagi.storage.Storage;
+import usagi.task.TaskView;
 import usagi.exception.UsagiException;
+import java.time.LocalDateTime;
 
 /**
  * Command to add a new recurring task to the task list.
@@ -13,24 +14,23 @@ import usagi.exception.UsagiException;
  * Example: recurring Monthly review /from 2024-01-01 09:00 /to 2024-01-01 10:00 /every monthly 1
  */
 public class AddRecurringTaskCommand implements Command {
-    private static final String COMMAND_PREFIX = "recurring";
+    public static final String KEYWORD = "recurring";
     private static final String FROM_MARKER = "/from";
     private static final String TO_MARKER = "/to";
     private static final String EVERY_MARKER = "/every";
     private static final String DEFAULT_INTERVAL = "1";
+    private static final int CONFLICT_CHECK_DAYS = 90;
     
-    private final TaskList tasks;
-    private final Storage storage;
+    private final TaskService service;
     private final String input;
     
-    public AddRecurringTaskCommand(TaskList tasks, Storage storage, String input) {
-        this.tasks = tasks;
-        this.storage = storage;
+    public AddRecurringTaskCommand(TaskService service, String input) {
+        this.service = service;
         this.input = input;
     }
     
     @Override
-    public String execute() throws UsagiException {
+    public CommandResult execute() throws UsagiException {
         if (input == null || input.trim().isEmpty()) {
             throw new UsagiException("Input cannot be null or empty");
         }
@@ -43,44 +43,31 @@ public class AddRecurringTaskCommand implements Command {
         String patternStr = parts[3];
         int interval = parts.length > 4 ? Integer.parseInt(parts[4]) : 1;
         
-        // Validate inputs
-        if (title.trim().isEmpty()) {
-            throw new UsagiException("Task title cannot be empty");
-        }
-        
-        if (interval <= 0) {
-            throw new UsagiException("Interval must be positive, got: " + interval);
-        }
-        
-        if (interval > 365) {
-            throw new UsagiException("Interval too large, maximum allowed is 365");
-        }
-        
         try {
             // Parse start and end times
-            java.time.LocalDateTime startTime = Task.parseDateTimeFlexible(startTimeStr);
-            java.time.LocalDateTime endTime = Task.parseDateTimeFlexible(endTimeStr);
+            LocalDateTime startTime = Task.parseDateTimeFlexible(startTimeStr);
+            LocalDateTime endTime = Task.parseDateTimeFlexible(endTimeStr);
             
             // Parse recurrence pattern
             RecurringTask.RecurrencePattern pattern = RecurringTask.RecurrencePattern.fromString(patternStr);
             
-            // Create the recurring task
-            RecurringTask recurringTask = new RecurringTask(title.trim(), false, startTime, endTime, pattern, interval);
-            
-            // Add to task list
-            tasks.add(recurringTask);
+            // Create, add and save the recurring task
+            TaskView recurringTask = service.addRecurring(title, startTime, endTime, pattern, interval);
             
-            // Save to storage
-            storage.save(tasks.all());
-            
-            return "Got it. I've added this recurring task:\n" + 
-                   "  " + recurringTask + "\n" +
-                   "Now you have " + tasks.size() + " task(s) in the list.";
+            // Only the first few months of occurrences are checked to keep adding cheap
+            LocalDateTime checkFrom = startTime.toLocalDate().atStartOfDay();
+            CommandResult.Builder result = CommandResult.builder();
+            result.text("Got it. I've added this recurring task:");
+            result.task("  ", recurringTask);
+            result.text("Now you have " + service.size() + " task(s) in the list.");
+            ConflictsCommand.addConflictWarning(result,
+                    service.conflictsWith(service.size(), checkFrom, checkFrom.plusDays(CONFLICT_CHECK_DAYS)));
+            return result.build();
                    
         } catch (IllegalArgumentException e) {
             throw new UsagiException("Invalid input format: " + e.getMessage() + 
-                "\nCorrect format: " + COMMAND_PREFIX + " <title> " + FROM_MARKER + " <start-time> " + TO_MARKER + " <end-time> " + EVERY_MARKER + " <pattern> [interval]");
-        } catch (Exception e) {
+                "\nCorrect format: " + KEYWORD + " <title> " + FROM_MARKER + " <start-time> " + TO_MARKER + " <end-time> " + EVERY_MARKER + " <pattern> [interval]");
+        } catch (RuntimeException e) {
             throw new UsagiException("Error creating recurring task: " + e.getMessage());
         }
     }
@@ -94,7 +81,7 @@ public class AddRecurringTaskCommand implements Command {
      */
     private String[] parseRecurringTaskInput(String input) throws UsagiException {
         // Remove the command prefix
-        String content = input.substring(COMMAND_PREFIX.length()).trim();
+        String content = input.substring(KEYWORD.length()).trim();
         
         // Find the required markers
         int fromIndex = content.indexOf(FROM_MARKER);
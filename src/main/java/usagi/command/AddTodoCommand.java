@@ -1,27 +1,25 @@
 package usagi.command;
 
-import usagi.task.TaskList;
-import usagi.task.Task;
-import usagi.task.ToDos;
-import usagi.storage.Storage;
+import usagi.service.TaskService;
+import usagi.task.TaskView;
 import usagi.exception.UsagiException;
 
 /**
  * Command to add a new todo task.
  */
 public class AddTodoCommand implements Command {
-    private final TaskList tasks;
-    private final Storage storage;
+    public static final String KEYWORD = "todo";
+    
+    private final TaskService service;
     private final String input;
     
-    public AddTodoCommand(TaskList tasks, Storage storage, String input) {
-        this.tasks = tasks;
-        this.storage = storage;
+    public AddTodoCommand(TaskService service, String input) {
+        this.service = service;
         this.input = input;
     }
     
     @Override
-    public String execute() throws UsagiException {
+    public CommandResult execute() throws UsagiException {
         if (!input.trim().contains(" ")) {
             throw new UsagiException("todo must be followed by a description");
         }
@@ -33,10 +31,11 @@ public class AddTodoCommand implements Command {
             throw new UsagiException("todo description cannot be empty");
         }
         
-        Task task = new ToDos(description, false);
-        tasks.add(task);
-        storage.save(tasks.all());
-        return "Got it. I've added this task:\n  " + task.toString() + 
-               "\nNow you have " + tasks.size() + " task(s) in the list.";
+        TaskView task = service.addTodo(description);
+        CommandResult.Builder result = CommandResult.builder();
+        result.text("Got it. I've added this task:");
+        result.task("  ", task);
+        result.text("Now you have " + service.size() + " task(s) in the list.");
+        return result.build();
     }
 }
@@ -10,8 +10,8 @@ public interface Command {
     /**
      * Executes the command and returns the result.
      * 
-     * @return The result of executing the command
+     * @return The structured result of executing the command
      * @throws UsagiException If an error occurs during command execution
      */
-    String execute() throws UsagiException;
+    CommandResult execute() throws UsagiException;
 }
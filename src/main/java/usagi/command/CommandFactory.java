@@ -1,38 +1,189 @@
 package usagi.command;
 
+import usagi.service.TaskService;
+import usagi.task.Task;
 import usagi.task.TaskList;
 import usagi.storage.Storage;
 import usagi.exception.UsagiException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Factory class for creating command objects based on user input.
  * This class is responsible for parsing user input and creating appropriate command objects.
+ *
+ * Commands are looked up by the first word of the input in a keyword table, so the
+ * cost of dispatching does not grow with the number of registered commands. Each
+ * command class declares its own keyword (and optional aliases), which are
+ * registered in {@link #registerDefaults()}.
  */
 public class CommandFactory {
-    private static final String COMMAND_LIST = "list";
-    private static final String COMMAND_BYE = "bye";
-    private static final String COMMAND_TODO = "todo";
-    private static final String COMMAND_DEADLINE = "deadline";
-    private static final String COMMAND_EVENT = "event";
-    private static final String COMMAND_MARK = "mark";
-    private static final String COMMAND_UNMARK = "unmark";
-    private static final String COMMAND_DELETE = "delete";
-    private static final String COMMAND_FIND = "find";
-    private static final String COMMAND_ON = "on";
-    private static final String COMMAND_RECURRING = "recurring";
-    private static final String COMMAND_UPCOMING = "upcoming";
-    
+
+    /**
+     * Creates a command for a given input. The input passed in always starts with
+     * the command's canonical keyword, even if the user typed an alias.
+     */
+    @FunctionalInterface
+    public interface CommandCreator {
+        Command create(TaskList tasks, Storage storage, String input) throws UsagiException;
+    }
+
+    // Commands whose argument is a task, which can be completed from the titles of the tasks
+    private static final Set<String> FIND_KEYWORDS = Set.of(FindCommand.KEYWORD);
+    private static final Set<String> NUMBER_KEYWORDS = Set.of(MarkCommand.KEYWORD, MarkCommand.UNMARK_KEYWORD,
+            DeleteCommand.KEYWORD);
+
     private final TaskList tasks;
     private final Storage storage;
-    
+    private final TaskService service;
+    private final Map<String, CommandCreator> creators = new HashMap<>();
+    private final Map<String, String> canonicalKeywords = new HashMap<>();
+    private final List<String> keywords = new ArrayList<>();
+
     public CommandFactory(TaskList tasks, Storage storage) {
+        assert tasks != null : "Task list cannot be null";
+        assert storage != null : "Storage cannot be null";
         this.tasks = tasks;
         this.storage = storage;
+        this.service = new TaskService(tasks, storage);
+        registerDefaults();
+    }
+
+    /**
+     * Returns the typed API the built-in commands operate through.
+     *
+     * @return The task service
+     */
+    public TaskService getService() {
+        return service;
+    }
+
+    /**
+     * Registers the built-in commands.
+     */
+    private void registerDefaults() {
+        register(ListCommand.KEYWORD, (t, s, in) -> new ListCommand(t, in), ListCommand.ALIASES);
+        register(AddTodoCommand.KEYWORD, (t, s, in) -> new AddTodoCommand(service, in));
+        register(AddDeadlineCommand.KEYWORD, (t, s, in) -> new AddDeadlineCommand(service, in));
+        register(AddEventCommand.KEYWORD, (t, s, in) -> new AddEventCommand(service, in));
+        register(AddRecurringTaskCommand.KEYWORD, (t, s, in) -> new AddRecurringTaskCommand(service, in));
+        register(MarkCommand.KEYWORD, (t, s, in) -> new MarkCommand(service, in));
+        register(MarkCommand.UNMARK_KEYWORD, (t, s, in) -> new MarkCommand(service, in));
+        register(DeleteCommand.KEYWORD, (t, s, in) -> new DeleteCommand(service, in), DeleteCommand.ALIASES);
+        register(FindCommand.KEYWORD, (t, s, in) -> new FindCommand(t, in), FindCommand.ALIASES);
+        register(TasksOnDateCommand.KEYWORD, (t, s, in) -> new TasksOnDateCommand(t, in));
+        register(UpcomingRecurringCommand.KEYWORD, (t, s, in) -> new UpcomingRecurringCommand(t, in));
+        register(QueryCommand.KEYWORD, (t, s, in) -> new QueryCommand(service, in));
+        register(QueryCommand.EXPLAIN_KEYWORD, (t, s, in) -> new QueryCommand(service, in));
+        register(WatchCommand.KEYWORD, (t, s, in) -> new WatchCommand(service, t, in));
+        register(WatchCommand.UNWATCH_KEYWORD, (t, s, in) -> new WatchCommand(service, t, in));
+        register(ShowCommand.KEYWORD, (t, s, in) -> new ShowCommand(t, in));
+        register(UndoCommand.KEYWORD, (t, s, in) -> new UndoCommand(service, in));
+        register(UndoCommand.REDO_KEYWORD, (t, s, in) -> new UndoCommand(service, in));
+        register(ConflictsCommand.KEYWORD, (t, s, in) -> new ConflictsCommand(t, in));
+        register(FreeCommand.KEYWORD, (t, s, in) -> new FreeCommand(t, in));
+        register(ExitCommand.KEYWORD, (t, s, in) -> new ExitCommand());
+    }
+
+    /**
+     * Registers a command under a keyword and any number of aliases.
+     *
+     * @param keyword The canonical keyword, matched against the first word of the input
+     * @param creator Creates the command for a matching input
+     * @param aliases Alternative keywords that dispatch to the same command
+     * @throws IllegalArgumentException If the keyword or an alias is already registered
+     */
+    public void register(String keyword, CommandCreator creator, String... aliases) {
+        assert keyword != null && !keyword.isEmpty() : "Keyword cannot be empty";
+        assert creator != null : "Command creator cannot be null";
+        // Check every word before adding any, so that a clash leaves the table unchanged
+        List<String> words = new ArrayList<>();
+        words.add(keyword);
+        words.addAll(Arrays.asList(aliases));
+        Set<String> seen = new HashSet<>();
+        for (String word : words) {
+            if (creators.containsKey(word) || !seen.add(word)) {
+                throw new IllegalArgumentException("Command keyword already registered: " + word);
+            }
+        }
+        for (String word : words) {
+            creators.put(word, creator);
+            canonicalKeywords.put(word, keyword);
+        }
+        keywords.add(keyword);
     }
-    
+
+    /**
+     * Suggests how to complete a partly typed command.
+     *
+     * While the first word is typed, suggests the command keywords and aliases it
+     * starts. After "find", "mark", "unmark" or "delete" (or an alias), suggests the
+     * tasks whose titles start with the rest of the input, most recently used first:
+     * "find" is completed with the title, the others with the number of the task.
+     *
+     * @param input The input typed so far
+     * @param limit The maximum number of suggestions
+     * @return The suggestions, possibly none
+     */
+    public List<Suggestion> complete(String input, int limit) {
+        String typed = input.stripLeading();
+        int end = 0;
+        while (end < typed.length() && !Character.isWhitespace(typed.charAt(end))) {
+            end++;
+        }
+        String word = typed.substring(0, end);
+        if (word.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (end == typed.length()) {
+            return completeKeyword(word, limit);
+        }
+
+        String keyword = canonicalKeywords.get(word);
+        String rest = typed.substring(end).stripLeading();
+        boolean isFind = FIND_KEYWORDS.contains(keyword);
+        boolean isNumber = NUMBER_KEYWORDS.contains(keyword);
+        if (rest.isEmpty() || (!isFind && !isNumber)
+                || (isNumber && Character.isDigit(rest.charAt(0)))) {
+            return Collections.emptyList();
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (Task task : tasks.completeTitle(rest, limit)) {
+            if (isFind) {
+                suggestions.add(new Suggestion(word + " " + task.getTitle(), task.getTitle()));
+            } else {
+                int number = tasks.indexOf(task);
+                suggestions.add(new Suggestion(word + " " + number, number + ". " + task.getTitle()));
+            }
+        }
+        return suggestions;
+    }
+
+    private List<Suggestion> completeKeyword(String prefix, int limit) {
+        List<String> matches = new ArrayList<>();
+        for (String word : creators.keySet()) {
+            if (word.startsWith(prefix) && !word.equals(prefix)) {
+                matches.add(word);
+            }
+        }
+        Collections.sort(matches);
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (String word : matches.subList(0, Math.min(limit, matches.size()))) {
+            suggestions.add(new Suggestion(word + " ", word));
+        }
+        return suggestions;
+    }
+
     /**
      * Creates a command based on the user input.
-     * 
+     *
      * @param input The user input string
      * @return A command object that can be executed
      * @throws UsagiException If the input is invalid or command cannot be created
@@ -41,44 +192,28 @@ public class CommandFactory {
         if (input == null) {
             throw new UsagiException("Input cannot be null");
         }
-        
+
         String trimmedInput = input.trim();
         if (trimmedInput.isEmpty()) {
             throw new UsagiException("Input cannot be empty");
         }
-        
-        // Validate that we have the required dependencies
-        if (tasks == null) {
-            throw new UsagiException("Task list is not initialized");
-        }
-        if (storage == null) {
-            throw new UsagiException("Storage is not initialized");
+
+        int end = 0;
+        while (end < trimmedInput.length() && !Character.isWhitespace(trimmedInput.charAt(end))) {
+            end++;
         }
-        
-        if (COMMAND_BYE.equals(trimmedInput)) {
-            return new ExitCommand();
-        } else if (COMMAND_LIST.equals(trimmedInput)) {
-            return new ListCommand(tasks);
-        } else if (trimmedInput.startsWith(COMMAND_ON + " ")) {
-            return new TasksOnDateCommand(tasks, trimmedInput);
-        } else if (trimmedInput.startsWith(COMMAND_FIND + " ")) {
-            return new FindCommand(tasks, trimmedInput);
-        } else if (trimmedInput.contains(COMMAND_MARK) || trimmedInput.contains(COMMAND_UNMARK)) {
-            return new MarkCommand(tasks, storage, trimmedInput);
-        } else if (trimmedInput.contains(COMMAND_DELETE)) {
-            return new DeleteCommand(tasks, storage, trimmedInput);
-        } else if (trimmedInput.startsWith(COMMAND_TODO + " ")) {
-            return new AddTodoCommand(tasks, storage, trimmedInput);
-        } else if (trimmedInput.startsWith(COMMAND_DEADLINE + " ")) {
-            return new AddDeadlineCommand(tasks, storage, trimmedInput);
-        } else if (trimmedInput.startsWith(COMMAND_EVENT + " ")) {
-            return new AddEventCommand(tasks, storage, trimmedInput);
-        } else if (trimmedInput.startsWith(COMMAND_RECURRING + " ")) {
-            return new AddRecurringTaskCommand(tasks, storage, trimmedInput);
-        } else if (trimmedInput.startsWith(COMMAND_UPCOMING)) {
-            return new UpcomingRecurringCommand(tasks, trimmedInput);
-        } else {
-            throw new UsagiException("I don't understand that command. Try: list, todo, deadline, event, recurring, mark, unmark, delete, find, upcoming, or bye");
+        String word = trimmedInput.substring(0, end);
+        String rest = trimmedInput.substring(end).trim();
+
+        CommandCreator creator = creators.get(word);
+        if (creator == null) {
+            throw new UsagiException("I don't understand that command. Try: "
+                    + String.join(", ", keywords.subList(0, keywords.size() - 1))
+                    + ", or " + keywords.get(keywords.size() - 1));
         }
+
+        String keyword = canonicalKeywords.get(word);
+        String normalizedInput = rest.isEmpty() ? keyword : keyword + " " + rest;
+        return creator.create(tasks, storage, normalizedInput);
     }
 }
@@ -0,0 +1,155 @@
+package usagi.command;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import usagi.task.TaskView;
+
+/**
+ * Represents the structured result of a command: an ordered list of lines,
+ * each of which is either plain text or a labelled task view.
+ * 
+ * The CLI turns a result into text with {@link #toString()}, while the GUI
+ * renders the lines directly, so neither has to re-parse the other's output.
+ */
+public class CommandResult {
+    /**
+     * Describes how a result should be presented.
+     */
+    public enum Kind {
+        /** Only plain text. */
+        MESSAGE,
+        /** Contains at least one task line. */
+        TASKS
+    }
+
+    private final List<Line> lines;
+    private final Kind kind;
+
+    private CommandResult(List<Line> lines) {
+        this.lines = Collections.unmodifiableList(lines);
+        this.kind = lines.stream().anyMatch(Line::isTask) ? Kind.TASKS : Kind.MESSAGE;
+    }
+
+    /**
+     * Creates a result consisting of a single message.
+     * 
+     * @param text The message, which may span several lines
+     * @return The result
+     */
+    public static CommandResult message(String text) {
+        Builder builder = new Builder();
+        builder.text(text);
+        return builder.build();
+    }
+
+    /**
+     * Creates a builder for a result.
+     * 
+     * @return An empty builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public List<Line> getLines() {
+        return lines;
+    }
+
+    /**
+     * Replays this result into the given sink.
+     * 
+     * @param out The sink to write the lines to
+     * @throws IOException If writing to the sink fails
+     */
+    public void writeTo(ResultSink out) throws IOException {
+        for (Line line : lines) {
+            if (line.isTask()) {
+                out.task(line.getText(), line.getTask());
+            } else {
+                out.text(line.getText());
+            }
+        }
+    }
+
+    /**
+     * Returns the result as text, one line per entry.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        try {
+            writeTo(new TextSink(sb));
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new AssertionError(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Represents one line of a result.
+     */
+    public static class Line {
+        private final String text;
+        private final TaskView task;
+
+        private Line(String text, TaskView task) {
+            this.text = text;
+            this.task = task;
+        }
+
+        /**
+         * Returns the text of a plain line, or the label of a task line.
+         * 
+         * @return The text or label
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Returns the task shown on this line.
+         * 
+         * @return The task view, or null for a plain line
+         */
+        public TaskView getTask() {
+            return task;
+        }
+
+        public boolean isTask() {
+            return task != null;
+        }
+    }
+
+    /**
+     * Collects lines into a CommandResult.
+     */
+    public static class Builder implements ResultSink {
+        private final List<Line> lines = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        @Override
+        public void text(String text) {
+            lines.add(new Line(text, null));
+        }
+
+        @Override
+        public void task(String label, TaskView task) {
+            assert task != null : "Task cannot be null";
+            lines.add(new Line(label, task));
+        }
+
+        public CommandResult build() {
+            return new CommandResult(new ArrayList<>(lines));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package usagi.command;
+
+import usagi.task.TaskList;
+import usagi.task.DateAnchor;
+import usagi.task.Schedule;
+import usagi.task.TimeSlot;
+import usagi.exception.UsagiException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Command to show overlapping events and recurring task slots.
+ * Format: conflicts [from] [to]
+ * Each date may be a phrase such as "next friday" or "end of month".
+ * If no dates are specified, checks the next 30 days from today.
+ * If only a start date is specified, checks 30 days from that date.
+ */
+public class ConflictsCommand implements Command {
+    public static final String KEYWORD = "conflicts";
+    private static final int DEFAULT_WINDOW_DAYS = 30;
+    private static final DateTimeFormatter SLOT_FORMAT = DateTimeFormatter.ofPattern("MMM d yyyy HH:mm");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM d yyyy");
+
+    private final TaskList tasks;
+    private final String input;
+
+    public ConflictsCommand(TaskList tasks, String input) {
+        this.tasks = tasks;
+        this.input = input;
+    }
+
+    @Override
+    public CommandResult execute() throws UsagiException {
+        String content = input.substring(KEYWORD.length()).trim();
+        LocalDate fromDate;
+        LocalDate toDate;
+        if (content.isEmpty()) {
+            fromDate = DateAnchor.today();
+            toDate = fromDate.plusDays(DEFAULT_WINDOW_DAYS);
+        } else {
+            DateArguments dates = DateArguments.parse(content);
+            fromDate = dates.from;
+            toDate = dates.to != null ? dates.to : fromDate.plusDays(DEFAULT_WINDOW_DAYS);
+        }
+        if (toDate.isBefore(fromDate)) {
+            throw new UsagiException("conflicts end date cannot be before start date");
+        }
+
+        LocalDateTime from = fromDate.atStartOfDay();
+        LocalDateTime to = toDate.plusDays(1).atStartOfDay();
+        List<Schedule.Conflict> conflicts = Schedule.findConflicts(tasks.all(), from, to);
+
+        String range = fromDate.format(DATE_FORMAT) + " and " + toDate.format(DATE_FORMAT);
+        if (conflicts.isEmpty()) {
+            return CommandResult.message("No conflicts between " + range + ".");
+        }
+
+        StringBuilder sb = new StringBuilder("Here are the conflicts between " + range + ":\n");
+        for (int i = 0; i < conflicts.size(); i++) {
+            Schedule.Conflict conflict = conflicts.get(i);
+            sb.append(i + 1).append(". ").append(describe(conflict.getFirst()))
+              .append("\n   overlaps ").append(describe(conflict.getSecond())).append("\n");
+        }
+        return CommandResult.message(sb.toString().trim());
+    }
+
+    /**
+     * Adds a warning listing the slots of other tasks that overlap a newly added task.
+     * Nothing is added if there are no conflicts.
+     *
+     * @param result The result to add the warning to
+     * @param clashes The overlapping slots
+     */
+    static void addConflictWarning(CommandResult.Builder result, List<TimeSlot> clashes) {
+        if (clashes.isEmpty()) {
+            return;
+        }
+        result.text("Heads up! This overlaps with:");
+        for (TimeSlot clash : clashes) {
+            result.text("  " + describe(clash));
+        }
+    }
+
+    /**
+     * Formats a slot as its task title followed by the slot's time range.
+     *
+     * @param slot The slot to describe
+     * @return A one-line description of the slot
+     */
+    static String describe(TimeSlot slot) {
+        return slot.getTask().getTitle() + " (" + SLOT_FORMAT.format(slot.getStart()) +
+               " - " + SLOT_FORMAT.format(slot.getEnd()) + ")";
+    }
+}
@@ -0,0 +1,57 @@
+package usagi.command;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import usagi.exception.UsagiException;
+import usagi.task.Task;
+
+/**
+ * Reads one or two dates off a command's arguments, where each date may be a
+ * phrase of several words such as "next fri" or "end of month".
+ */
+final class DateArguments {
+    /** The first date. */
+    final LocalDate from;
+    /** The second date, or null if only one was given. */
+    final LocalDate to;
+
+    private DateArguments(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Parses the arguments as one date, or else as two dates one after the other.
+     * Relative phrases are resolved against {@link usagi.task.DateAnchor#today()}.
+     * 
+     * @param content The arguments holding the dates
+     * @return The dates
+     * @throws UsagiException If the arguments are not one or two dates
+     */
+    static DateArguments parse(String content) throws UsagiException {
+        LocalDate date = tryParse(content);
+        if (date != null) {
+            return new DateArguments(date, null);
+        }
+        String[] words = content.trim().split("\\s+");
+        for (int split = 1; split < words.length; split++) {
+            LocalDate from = tryParse(String.join(" ", Arrays.copyOfRange(words, 0, split)));
+            LocalDate to = from == null ? null
+                    : tryParse(String.join(" ", Arrays.copyOfRange(words, split, words.length)));
+            if (to != null) {
+                return new DateArguments(from, to);
+            }
+        }
+        throw new UsagiException(words.length == 1 ? "Cannot parse date: " + content.trim()
+                : "Cannot read one or two dates from: " + content.trim());
+    }
+
+    private static LocalDate tryParse(String raw) {
+        try {
+            return Task.parseDateFlexible(raw);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -1,40 +1,55 @@
 package usagi.command;
 
-import usagi.task.TaskList;
-import usagi.task.Task;
-import usagi.storage.Storage;
+import usagi.service.TaskService;
+import usagi.task.TaskView;
 import usagi.exception.UsagiException;
+import java.util.List;
 
 /**
- * Command to delete a task.
+ * Command to delete tasks.
+ * Format: delete <numbers> or delete done
+ * Numbers can be a single task number, a range such as 3-40, or a
+ * comma-separated list such as 5,9,12. "delete done" removes every completed task.
+ * All tasks are removed in one pass and saved at once.
  */
 public class DeleteCommand implements Command {
-    private final TaskList tasks;
-    private final Storage storage;
+    public static final String KEYWORD = "delete";
+    public static final String[] ALIASES = {"rm"};
+    private static final String DONE_SELECTOR = "done";
+    
+    private final TaskService service;
     private final String input;
     
-    public DeleteCommand(TaskList tasks, Storage storage, String input) {
-        this.tasks = tasks;
-        this.storage = storage;
+    public DeleteCommand(TaskService service, String input) {
+        this.service = service;
         this.input = input;
     }
     
     @Override
-    public String execute() throws UsagiException {
+    public CommandResult execute() throws UsagiException {
         String[] parts = input.split(" ", 2);
         if (parts.length != 2) {
             throw new UsagiException("Invalid delete command format");
         }
         
-        int taskNumber = Integer.parseInt(parts[1]) - 1; // Convert from 1-based to 0-based
-        
-        if (taskNumber < 0 || taskNumber >= tasks.size()) {
-            throw new UsagiException("Invalid task number");
+        List<TaskView> removed;
+        if (DONE_SELECTOR.equals(parts[1].trim())) {
+            removed = service.deleteDone();
+            if (removed.isEmpty()) {
+                return CommandResult.message("There are no completed tasks to delete.");
+            }
+        } else {
+            removed = service.deleteAll(IndexSelection.parse(parts[1], service.size()));
         }
         
-        Task removed = tasks.delete(taskNumber + 1); // delete() expects 1-based index
-        storage.save(tasks.all());
-        return "Noted. I've removed this task:\n  " + removed.toString() + 
-               "\nNow you have " + tasks.size() + " task(s) in the list.";
+        CommandResult.Builder result = CommandResult.builder();
+        result.text(removed.size() == 1
+                ? "Noted. I've removed this task:"
+                : "Noted. I've removed these " + removed.size() + " tasks:");
+        for (TaskView task : removed) {
+            result.task("  ", task);
+        }
+        result.text("Now you have " + service.size() + " task(s) in the list.");
+        return result.build();
     }
 }
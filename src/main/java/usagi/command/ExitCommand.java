@@ -4,8 +4,10 @@ package usagi.command;
  * Command to exit the application.
  */
 public class ExitCommand implements Command {
+    public static final String KEYWORD = "bye";
+    
     @Override
-    public String execute() {
-        return "Goodbye! See you next time!";
+    public CommandResult execute() {
+        return CommandResult.message("Goodbye! See you next time!");
     }
 }
@@ -3,36 +3,76 @@ package usagi.command;
 import usagi.task.TaskList;
 import usagi.task.Task;
 import usagi.exception.UsagiException;
+import java.io.IOException;
 import java.util.List;
 
 /**
  * Command to find tasks containing a keyword.
+ * Format: find <keyword> [--limit N]
+ * With a limit, the search stops after N matches and "more" continues it.
  */
-public class FindCommand implements Command {
+public class FindCommand implements StreamingCommand, PagedCommand {
+    public static final String KEYWORD = "find";
+    public static final String[] ALIASES = {"search"};
+    
     private final TaskList tasks;
     private final String input;
+    private String keyword;
+    private int limit;
+    private int fromIndex;
+    private int firstNumber = 1;
+    private Command next;
     
     public FindCommand(TaskList tasks, String input) {
         this.tasks = tasks;
         this.input = input;
     }
     
+    /**
+     * Constructs a command that continues an earlier search.
+     */
+    private FindCommand(TaskList tasks, String keyword, int limit, int fromIndex, int firstNumber) {
+        this.tasks = tasks;
+        this.input = null;
+        this.keyword = keyword;
+        this.limit = limit;
+        this.fromIndex = fromIndex;
+        this.firstNumber = firstNumber;
+    }
+    
     @Override
-    public String execute() throws UsagiException {
-        String keyword = input.substring(5).trim(); // Remove "find "
+    public void writeTo(ResultSink out) throws UsagiException, IOException {
+        next = null;
+        if (input != null) {
+            LimitOption option = LimitOption.parse(input.substring(KEYWORD.length()).trim());
+            keyword = option.rest;
+            limit = option.limit;
+        }
         if (keyword.isEmpty()) {
             throw new UsagiException("find must be followed by a keyword");
         }
         
-        List<Task> matches = tasks.find(keyword);
+        TaskList.Page page = tasks.find(keyword, fromIndex, limit);
+        List<Task> matches = page.getTasks();
+        boolean isContinuation = firstNumber > 1;
         if (matches.isEmpty()) {
-            return "No tasks found matching your search.";
-        } else {
-            StringBuilder sb = new StringBuilder("Here are the matching tasks in your list:\n");
-            for (int i = 0; i < matches.size(); i++) {
-                sb.append((i + 1) + "." + matches.get(i).toString() + "\n");
-            }
-            return sb.toString().trim();
+            out.text(isContinuation ? "No more matching tasks." : "No tasks found matching your search.");
+            return;
         }
+        out.text(isContinuation
+                ? "Here are the matching tasks in your list (continued):"
+                : "Here are the matching tasks in your list:");
+        for (int i = 0; i < matches.size(); i++) {
+            out.task((firstNumber + i) + ".", matches.get(i).toView());
+        }
+        if (page.hasMore()) {
+            next = new FindCommand(tasks, keyword, limit, page.getNextIndex(), firstNumber + matches.size());
+            out.text("Type 'more' to see more matches.");
+        }
+    }
+    
+    @Override
+    public Command next() {
+        return next;
     }
 }
@@ -0,0 +1,111 @@
+package usagi.command;
+
+import usagi.task.TaskList;
+import usagi.task.DateAnchor;
+import usagi.task.Schedule;
+import usagi.task.TimeSlot;
+import usagi.exception.UsagiException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Command to propose open time slots that are not taken by events or recurring tasks.
+ * Format: free <duration> [between <from> <to>]
+ * Duration accepts hours and/or minutes, e.g. 30m, 2h, 1h30m, or a plain number of minutes.
+ * Each date may be a phrase such as "today" or "end of month".
+ * If no range is specified, searches the next 7 days from now.
+ * Example: free 1h between 2024-12-01 2024-12-03
+ */
+public class FreeCommand implements Command {
+    public static final String KEYWORD = "free";
+    private static final String BETWEEN_MARKER = "between";
+    private static final int DEFAULT_WINDOW_DAYS = 7;
+    private static final int MAX_SLOTS = 5;
+    private static final DateTimeFormatter SLOT_FORMAT = DateTimeFormatter.ofPattern("MMM d yyyy HH:mm");
+
+    private final TaskList tasks;
+    private final String input;
+
+    public FreeCommand(TaskList tasks, String input) {
+        this.tasks = tasks;
+        this.input = input;
+    }
+
+    @Override
+    public CommandResult execute() throws UsagiException {
+        String content = input.substring(KEYWORD.length()).trim();
+        String[] parts = content.isEmpty() ? new String[0] : content.split("\\s+", 3);
+        if (parts.length != 1 && parts.length != 3) {
+            throw new UsagiException("free must be followed by a duration, optionally: between <from> <to>");
+        }
+
+        Duration length = parseDuration(parts[0]);
+        LocalDateTime from;
+        LocalDateTime to;
+        if (parts.length == 3) {
+            DateArguments dates = BETWEEN_MARKER.equals(parts[1]) ? DateArguments.parse(parts[2]) : null;
+            if (dates == null || dates.to == null) {
+                throw new UsagiException("Use: free <duration> " + BETWEEN_MARKER + " <from> <to>");
+            }
+            from = dates.from.atStartOfDay();
+            to = dates.to.plusDays(1).atStartOfDay();
+        } else {
+            from = DateAnchor.today().atTime(LocalTime.now()).truncatedTo(ChronoUnit.MINUTES);
+            to = from.plusDays(DEFAULT_WINDOW_DAYS);
+        }
+        if (!from.isBefore(to)) {
+            throw new UsagiException("free end date cannot be before start date");
+        }
+
+        List<TimeSlot> slots = Schedule.findFreeSlots(tasks.all(), length, from, to, MAX_SLOTS);
+        if (slots.isEmpty()) {
+            return CommandResult.message("No free slot of " + parts[0] + " found.");
+        }
+
+        StringBuilder sb = new StringBuilder("Here are your free slots of at least " + parts[0] + ":\n");
+        for (int i = 0; i < slots.size(); i++) {
+            TimeSlot slot = slots.get(i);
+            sb.append(i + 1).append(". ").append(SLOT_FORMAT.format(slot.getStart()))
+              .append(" - ").append(SLOT_FORMAT.format(slot.getEnd())).append("\n");
+        }
+        return CommandResult.message(sb.toString().trim());
+    }
+
+    /**
+     * Parses a duration such as 30m, 2h, 1h30m or a plain number of minutes.
+     *
+     * @param raw The duration string
+     * @return The parsed duration
+     * @throws UsagiException If the duration is malformed or not positive
+     */
+    private static Duration parseDuration(String raw) throws UsagiException {
+        String s = raw.toLowerCase();
+        long minutes = 0;
+        long number = -1;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                number = (number < 0 ? 0 : number * 10) + (c - '0');
+                if (number > 100_000) {
+                    throw new UsagiException("Duration too large: " + raw);
+                }
+            } else if ((c == 'h' || c == 'm') && number >= 0) {
+                minutes += c == 'h' ? number * 60 : number;
+                number = -1;
+            } else {
+                throw new UsagiException("Invalid duration: " + raw + " (try 30m, 2h or 1h30m)");
+            }
+        }
+        if (number >= 0) {
+            minutes += number;
+        }
+        if (minutes <= 0) {
+            throw new UsagiException("Duration must be positive, got: " + raw);
+        }
+        return Duration.ofMinutes(minutes);
+    }
+}
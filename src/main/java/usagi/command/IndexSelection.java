@@ -0,0 +1,58 @@
+package usagi.command;
+
+import usagi.exception.UsagiException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses a selection of task numbers such as "3", "3-40" or "5,9,12-14".
+ */
+final class IndexSelection {
+    private IndexSelection() {
+    }
+
+    /**
+     * Parses a selection into task numbers.
+     *
+     * @param spec The selection, made of comma-separated numbers and ranges
+     * @param size The number of tasks in the list
+     * @return The selected 1-based task numbers, ascending and without duplicates
+     * @throws UsagiException If the selection is malformed or a number is out of range
+     */
+    static List<Integer> parse(String spec, int size) throws UsagiException {
+        boolean[] isSelected = new boolean[size + 1];
+        for (String item : spec.split(",", -1)) {
+            String part = item.trim();
+            int dash = part.indexOf('-', 1);
+            int first = parseNumber(dash < 0 ? part : part.substring(0, dash), size);
+            int last = dash < 0 ? first : parseNumber(part.substring(dash + 1), size);
+            if (last < first) {
+                throw new UsagiException("Invalid range " + part + ": the end comes before the start");
+            }
+            for (int i = first; i <= last; i++) {
+                isSelected[i] = true;
+            }
+        }
+
+        List<Integer> selected = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            if (isSelected[i]) {
+                selected.add(i);
+            }
+        }
+        return selected;
+    }
+
+    private static int parseNumber(String raw, int size) throws UsagiException {
+        int number;
+        try {
+            number = Integer.parseInt(raw.trim());
+        } catch (NumberFormatException e) {
+            throw new UsagiException("Invalid task number: " + raw + " (use e.g. 3, 3-40 or 5,9,12)");
+        }
+        if (number <= 0 || number > size) {
+            throw new UsagiException("Invalid task number: " + number + ". You have " + size + " task(s).");
+        }
+        return number;
+    }
+}
@@ -0,0 +1,44 @@
+package usagi.command;
+
+import usagi.exception.UsagiException;
+
+/**
+ * Splits an optional trailing "--limit N" off a command's arguments.
+ */
+final class LimitOption {
+    static final String FLAG = "--limit";
+
+    /** The arguments with the option removed. */
+    final String rest;
+    /** The requested limit, or Integer.MAX_VALUE if none was given. */
+    final int limit;
+
+    private LimitOption(String rest, int limit) {
+        this.rest = rest;
+        this.limit = limit;
+    }
+
+    /**
+     * Parses the arguments of a command.
+     * 
+     * @param content The arguments following the command keyword
+     * @return The arguments without the option, and the limit
+     * @throws UsagiException If the limit is not a positive number
+     */
+    static LimitOption parse(String content) throws UsagiException {
+        int index = content.lastIndexOf(FLAG);
+        if (index < 0 || (index > 0 && content.charAt(index - 1) != ' ')) {
+            return new LimitOption(content, Integer.MAX_VALUE);
+        }
+        String value = content.substring(index + FLAG.length()).trim();
+        try {
+            int limit = Integer.parseInt(value);
+            if (limit <= 0) {
+                throw new UsagiException("Limit must be positive, got: " + limit);
+            }
+            return new LimitOption(content.substring(0, index).trim(), limit);
+        } catch (NumberFormatException e) {
+            throw new UsagiException(FLAG + " must be followed by a number");
+        }
+    }
+}
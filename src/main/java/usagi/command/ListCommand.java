@@ -1,28 +1,73 @@
 package usagi.command;
 
+import java.io.IOException;
+
 import usagi.task.TaskList;
-import usagi.task.Task;
+import usagi.exception.UsagiException;
 
 /**
  * Command to list all tasks.
+ * Format: list [page]
+ * Without a page number, lists every task. With a page number, lists one
+ * page of tasks, and "more" shows the next page.
  */
-public class ListCommand implements Command {
+public class ListCommand implements StreamingCommand, PagedCommand {
+    public static final String KEYWORD = "list";
+    public static final String[] ALIASES = {"ls"};
+    static final int PAGE_SIZE = 20;
+    
     private final TaskList tasks;
+    private final String input;
+    private Command next;
     
-    public ListCommand(TaskList tasks) {
+    public ListCommand(TaskList tasks, String input) {
         this.tasks = tasks;
+        this.input = input;
     }
     
     @Override
-    public String execute() {
+    public void writeTo(ResultSink out) throws UsagiException, IOException {
+        next = null;
+        String content = input.substring(KEYWORD.length()).trim();
         if (tasks.size() == 0) {
-            return "You have no tasks in your list.";
-        } else {
-            StringBuilder sb = new StringBuilder("Here are your tasks:\n");
-            for (int i = 0; i < tasks.size(); i++) {
-                sb.append((i + 1) + "." + tasks.getByIndex(i).toString() + "\n");
-            }
-            return sb.toString().trim();
+            out.text("You have no tasks in your list.");
+            return;
+        }
+        if (content.isEmpty()) {
+            out.text("Here are your tasks:");
+            writeTasks(0, tasks.size(), out);
+            return;
+        }
+        
+        int page;
+        try {
+            page = Integer.parseInt(content);
+        } catch (NumberFormatException e) {
+            throw new UsagiException("list must be followed by a page number, got: " + content);
+        }
+        int pageCount = (tasks.size() + PAGE_SIZE - 1) / PAGE_SIZE;
+        if (page <= 0 || page > pageCount) {
+            throw new UsagiException("Page " + page + " does not exist. You have " + pageCount + " page(s).");
+        }
+        
+        int start = (page - 1) * PAGE_SIZE;
+        int end = Math.min(start + PAGE_SIZE, tasks.size());
+        out.text("Here are your tasks (page " + page + " of " + pageCount + "):");
+        writeTasks(start, end, out);
+        if (page < pageCount) {
+            next = new ListCommand(tasks, KEYWORD + " " + (page + 1));
+            out.text("Type 'more' to see the next page.");
         }
     }
+    
+    private void writeTasks(int start, int end, ResultSink out) throws IOException {
+        for (int i = start; i < end; i++) {
+            out.task((i + 1) + ".", tasks.getByIndex(i).toView());
+        }
+    }
+    
+    @Override
+    public Command next() {
+        return next;
+    }
 }
@@ -1,50 +1,54 @@
 package usagi.command;
 
-import usagi.task.TaskList;
-import usagi.task.Task;
-import usagi.storage.Storage;
+import usagi.service.TaskService;
+import usagi.task.TaskView;
 import usagi.exception.UsagiException;
+import java.util.List;
 
 /**
- * Command to mark or unmark a task.
+ * Command to mark or unmark tasks.
+ * Format: mark <numbers> or unmark <numbers>
+ * Numbers can be a single task number, a range such as 3-40, or a
+ * comma-separated list such as 5,9,12. All tasks are changed and saved at once.
  */
 public class MarkCommand implements Command {
-    private final TaskList tasks;
-    private final Storage storage;
+    public static final String KEYWORD = "mark";
+    public static final String UNMARK_KEYWORD = "unmark";
+    
+    private final TaskService service;
     private final String input;
     
-    public MarkCommand(TaskList tasks, Storage storage, String input) {
-        this.tasks = tasks;
-        this.storage = storage;
+    public MarkCommand(TaskService service, String input) {
+        this.service = service;
         this.input = input;
     }
     
     @Override
-    public String execute() throws UsagiException {
-        String[] parts = input.split(" ");
+    public CommandResult execute() throws UsagiException {
+        String[] parts = input.split(" ", 2);
         if (parts.length != 2) {
             throw new UsagiException("Invalid mark command format");
         }
         
         String command = parts[0];
-        int taskNumber = Integer.parseInt(parts[1]) - 1; // Convert from 1-based to 0-based
-        
-        if (taskNumber < 0 || taskNumber >= tasks.size()) {
-            throw new UsagiException("Invalid task number");
+        boolean isMark = KEYWORD.equals(command);
+        if (!isMark && !UNMARK_KEYWORD.equals(command)) {
+            throw new UsagiException("Invalid mark command: " + command);
         }
+        List<Integer> taskNumbers = IndexSelection.parse(parts[1], service.size());
+        List<TaskView> changed = isMark ? service.markAll(taskNumbers) : service.unmarkAll(taskNumbers);
         
-        Task task = tasks.getByIndex(taskNumber);
-        
-        if ("unmark".equals(command)) {
-            task.unmark();
-            storage.save(tasks.all());
-            return "OK, I've marked this task as not done yet:\n  " + task.toString();
-        } else if ("mark".equals(command)) {
-            task.mark();
-            storage.save(tasks.all());
-            return "Nice! I've marked this task as done:\n  " + task.toString();
+        CommandResult.Builder result = CommandResult.builder();
+        if (changed.size() == 1) {
+            result.text(isMark ? "Nice! I've marked this task as done:" : "OK, I've marked this task as not done yet:");
         } else {
-            throw new UsagiException("Invalid mark command: " + command);
+            result.text(isMark
+                    ? "Nice! I've marked these " + changed.size() + " tasks as done:"
+                    : "OK, I've marked these " + changed.size() + " tasks as not done yet:");
+        }
+        for (TaskView task : changed) {
+            result.task("  ", task);
         }
+        return result.build();
     }
 }
@@ -0,0 +1,17 @@
+package usagi.command;
+
+/**
+ * Represents a command that shows one page of a larger result.
+ * 
+ * After such a command runs, the parser keeps its continuation so that
+ * the "more" command can show the following page.
+ */
+public interface PagedCommand extends Command {
+    /**
+     * Returns the command that shows the next page.
+     * Only meaningful after this command has been executed.
+     * 
+     * @return The command for the next page, or null if this was the last page
+     */
+    Command next();
+}
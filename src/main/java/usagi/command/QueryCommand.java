@@ -0,0 +1,59 @@
+package usagi.command;
+
+import usagi.service.TaskService;
+import usagi.task.TaskView;
+import usagi.exception.UsagiException;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Command to search tasks with a query.
+ * Format: query <terms> or explain <terms>
+ * Terms are combinations of type:, done:, before:, after:, title: and bare words,
+ * joined with "or", negated with "not", with optional sort: and limit: options.
+ * Results are numbered by their position in the list.
+ * "explain" runs the query and reports the plan chosen and how many tasks were examined.
+ * Example: query type:D done:false before:2025-01-01 title:"report"
+ */
+public class QueryCommand implements StreamingCommand {
+    public static final String KEYWORD = "query";
+    public static final String EXPLAIN_KEYWORD = "explain";
+
+    private final TaskService service;
+    private final String input;
+
+    public QueryCommand(TaskService service, String input) {
+        this.service = service;
+        this.input = input;
+    }
+
+    @Override
+    public void writeTo(ResultSink out) throws UsagiException, IOException {
+        boolean isExplain = input.startsWith(EXPLAIN_KEYWORD);
+        String keyword = isExplain ? EXPLAIN_KEYWORD : KEYWORD;
+        String content = input.substring(keyword.length()).trim();
+        if (content.isEmpty()) {
+            throw new UsagiException(keyword + " must be followed by search terms, e.g. type:D done:false");
+        }
+
+        TaskService.QueryResult result = service.query(content);
+        if (isExplain) {
+            out.text("Query: " + result.getQuery());
+            out.text("Plan: " + result.getPlan());
+            out.text("Scanned " + result.getScanned() + " of " + service.size() + " task(s), "
+                    + result.getTasks().size() + " matched.");
+            return;
+        }
+
+        List<TaskView> matches = result.getTasks();
+        if (matches.isEmpty()) {
+            out.text("No tasks match your query.");
+            return;
+        }
+        out.text("Here are the tasks matching your query:");
+        List<Integer> ids = result.getIds();
+        for (int i = 0; i < matches.size(); i++) {
+            out.task(ids.get(i) + ".", matches.get(i));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package usagi.command;
+
+import java.io.IOException;
+
+import usagi.task.TaskView;
+
+/**
+ * Receives the result of a command one line at a time.
+ * 
+ * A line is either plain text or a task shown after a short label (such as "1."
+ * or an indent). The CLI writes lines straight to its output as text, while the
+ * GUI collects them into a {@link CommandResult} and renders each part directly.
+ */
+public interface ResultSink {
+    /**
+     * Adds a line of plain text.
+     * 
+     * @param text The text of the line
+     * @throws IOException If writing the line fails
+     */
+    void text(String text) throws IOException;
+
+    /**
+     * Adds a line showing a task.
+     * 
+     * @param label The text shown before the task, such as "1." or "  "
+     * @param task The task to show
+     * @throws IOException If writing the line fails
+     */
+    void task(String label, TaskView task) throws IOException;
+}
@@ -0,0 +1,61 @@
+package usagi.command;
+
+import usagi.task.TaskList;
+import usagi.task.SavedSearch;
+import usagi.task.Task;
+import usagi.exception.UsagiException;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Command to show the current matches of a saved search.
+ * Format: show [name]
+ * Without a name, lists the saved searches and how many tasks each matches.
+ * The matches are kept up to date as tasks change, so showing them does not
+ * search the whole task list.
+ */
+public class ShowCommand implements StreamingCommand {
+    public static final String KEYWORD = "show";
+
+    private final TaskList tasks;
+    private final String input;
+
+    public ShowCommand(TaskList tasks, String input) {
+        this.tasks = tasks;
+        this.input = input;
+    }
+
+    @Override
+    public void writeTo(ResultSink out) throws UsagiException, IOException {
+        String name = input.substring(KEYWORD.length()).trim();
+        if (name.isEmpty()) {
+            writeSearches(out);
+            return;
+        }
+
+        SavedSearch search = tasks.getSavedSearch(name);
+        if (search == null) {
+            throw new UsagiException("There is no saved search named '" + name + "'. Create one with 'watch'");
+        }
+        List<Task> results = search.results();
+        if (results.isEmpty()) {
+            out.text("No tasks match '" + name + "' (" + search.getQueryText() + ").");
+            return;
+        }
+        out.text("Here are the tasks matching '" + name + "' (" + search.getQueryText() + "):");
+        for (int i = 0; i < results.size(); i++) {
+            out.task((i + 1) + ".", results.get(i).toView());
+        }
+    }
+
+    private void writeSearches(ResultSink out) throws IOException {
+        if (tasks.savedSearches().isEmpty()) {
+            out.text("You have no saved searches. Create one with: watch <name> <query>");
+            return;
+        }
+        out.text("Here are your saved searches:");
+        for (SavedSearch search : tasks.savedSearches()) {
+            out.text("  " + search.getName() + ": " + search.getQueryText() + " (" + search.size() + " task(s))");
+        }
+    }
+}
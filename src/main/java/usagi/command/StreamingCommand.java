@@ -0,0 +1,41 @@
+package usagi.command;
+
+import java.io.IOException;
+
+import usagi.exception.UsagiException;
+
+/**
+ * Represents a command whose result can be written piece by piece to a sink.
+ * 
+ * Commands that can produce large results (such as listing every task) implement
+ * this so that the CLI can stream lines straight to standard output instead of
+ * building the whole response in memory first.
+ */
+public interface StreamingCommand extends Command {
+    /**
+     * Executes the command, writing the result to the given sink line by line.
+     * 
+     * @param out The sink to write the result to
+     * @throws UsagiException If an error occurs during command execution
+     * @throws IOException If writing to the sink fails
+     */
+    void writeTo(ResultSink out) throws UsagiException, IOException;
+
+    /**
+     * Executes the command and collects the whole result.
+     * 
+     * @return The result of executing the command
+     * @throws UsagiException If an error occurs during command execution
+     */
+    @Override
+    default CommandResult execute() throws UsagiException {
+        CommandResult.Builder result = CommandResult.builder();
+        try {
+            writeTo(result);
+        } catch (IOException e) {
+            // The builder never throws, but the signature requires handling it
+            throw new UsagiException("Failed to build response", e);
+        }
+        return result.build();
+    }
+}
@@ -0,0 +1,33 @@
+package usagi.command;
+
+/**
+ * Represents a way to complete a partly typed command.
+ */
+public class Suggestion {
+    private final String input;
+    private final String label;
+
+    /**
+     * Constructs a Suggestion.
+     *
+     * @param input The whole command, as it would read once completed
+     * @param label How the suggestion is shown, such as the title of the task it refers to
+     */
+    public Suggestion(String input, String label) {
+        this.input = input;
+        this.label = label;
+    }
+
+    public String getInput() {
+        return input;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
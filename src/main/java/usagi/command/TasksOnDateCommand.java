@@ -3,41 +3,78 @@ package usagi.command;
 import usagi.task.TaskList;
 import usagi.task.Task;
 import usagi.exception.UsagiException;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
  * Command to find tasks on a specific date.
+ * Format: on <date> [--limit N]
+ * With a limit, the search stops after N tasks and "more" continues it.
  */
-public class TasksOnDateCommand implements Command {
+public class TasksOnDateCommand implements StreamingCommand, PagedCommand {
+    public static final String KEYWORD = "on";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd yyyy");
+    
     private final TaskList tasks;
     private final String input;
+    private LocalDate date;
+    private int limit;
+    private int fromIndex;
+    private int firstNumber = 1;
+    private Command next;
     
     public TasksOnDateCommand(TaskList tasks, String input) {
         this.tasks = tasks;
         this.input = input;
     }
     
+    /**
+     * Constructs a command that continues an earlier search.
+     */
+    private TasksOnDateCommand(TaskList tasks, LocalDate date, int limit, int fromIndex, int firstNumber) {
+        this.tasks = tasks;
+        this.input = null;
+        this.date = date;
+        this.limit = limit;
+        this.fromIndex = fromIndex;
+        this.firstNumber = firstNumber;
+    }
+    
     @Override
-    public String execute() throws UsagiException {
-        String raw = input.substring(3).trim(); // Remove "on "
-        if (raw.isEmpty()) {
-            throw new UsagiException("Date cannot be empty");
+    public void writeTo(ResultSink out) throws UsagiException, IOException {
+        next = null;
+        if (input != null) {
+            LimitOption option = LimitOption.parse(input.substring(KEYWORD.length()).trim());
+            if (option.rest.isEmpty()) {
+                throw new UsagiException("Date cannot be empty");
+            }
+            date = Task.parseDateFlexible(option.rest);
+            limit = option.limit;
         }
         
-        LocalDate date = Task.parseDateFlexible(raw);
-        List<Task> tasksOnDate = tasks.tasksOn(date);
+        TaskList.Page page = tasks.tasksOn(date, fromIndex, limit);
+        List<Task> tasksOnDate = page.getTasks();
+        boolean isContinuation = firstNumber > 1;
         
         if (tasksOnDate.isEmpty()) {
-            return "You have no tasks on " + date.format(DateTimeFormatter.ofPattern("MMM dd yyyy")) + ".";
-        } else {
-            StringBuilder sb = new StringBuilder("Here are your tasks on " + 
-                date.format(DateTimeFormatter.ofPattern("MMM dd yyyy")) + ":\n");
-            for (int i = 0; i < tasksOnDate.size(); i++) {
-                sb.append((i + 1) + "." + tasksOnDate.get(i).toString() + "\n");
-            }
-            return sb.toString().trim();
+            out.text((isContinuation ? "You have no more tasks on " : "You have no tasks on ")
+                    + date.format(DATE_FORMAT) + ".");
+            return;
         }
+        out.text("Here are your tasks on " + date.format(DATE_FORMAT) + (isContinuation ? " (continued):" : ":"));
+        for (int i = 0; i < tasksOnDate.size(); i++) {
+            out.task((firstNumber + i) + ".", tasksOnDate.get(i).toView());
+        }
+        if (page.hasMore()) {
+            next = new TasksOnDateCommand(tasks, date, limit, page.getNextIndex(), firstNumber + tasksOnDate.size());
+            out.text("Type 'more' to see more tasks.");
+        }
+    }
+    
+    @Override
+    public Command next() {
+        return next;
     }
 }
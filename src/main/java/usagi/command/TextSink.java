@@ -0,0 +1,36 @@
+package usagi.command;
+
+import java.io.IOException;
+
+import usagi.task.TaskView;
+
+/**
+ * Writes command results as text, one line per entry, with no trailing newline.
+ */
+public class TextSink implements ResultSink {
+    private final Appendable out;
+    private boolean isFirstLine = true;
+
+    public TextSink(Appendable out) {
+        this.out = out;
+    }
+
+    @Override
+    public void text(String text) throws IOException {
+        startLine();
+        out.append(text);
+    }
+
+    @Override
+    public void task(String label, TaskView task) throws IOException {
+        startLine();
+        out.append(label).append(task.toString());
+    }
+
+    private void startLine() throws IOException {
+        if (!isFirstLine) {
+            out.append('\n');
+        }
+        isFirstLine = false;
+    }
+}
@@ -0,0 +1,44 @@
+package usagi.command;
+
+import usagi.service.TaskService;
+import usagi.task.TaskView;
+import usagi.exception.UsagiException;
+
+/**
+ * Command to undo or redo the latest change to the task list.
+ * Format: undo or redo
+ * Adding, marking, unmarking and deleting tasks can be undone.
+ */
+public class UndoCommand implements Command {
+    public static final String KEYWORD = "undo";
+    public static final String REDO_KEYWORD = "redo";
+
+    private final TaskService service;
+    private final String input;
+
+    public UndoCommand(TaskService service, String input) {
+        this.service = service;
+        this.input = input;
+    }
+
+    @Override
+    public CommandResult execute() throws UsagiException {
+        boolean isUndo;
+        if (KEYWORD.equals(input)) {
+            isUndo = true;
+        } else if (REDO_KEYWORD.equals(input)) {
+            isUndo = false;
+        } else {
+            throw new UsagiException("Invalid " + input.split(" ", 2)[0] + " command format. Use: "
+                    + KEYWORD + " or " + REDO_KEYWORD);
+        }
+        TaskService.Change change = isUndo ? service.undo() : service.redo();
+
+        CommandResult.Builder result = CommandResult.builder();
+        result.text((isUndo ? "Undone! I've " : "Redone! I've ") + change.getDescription() + ":");
+        for (TaskView task : change.getTasks()) {
+            result.task("  ", task);
+        }
+        return result.build();
+    }
+}
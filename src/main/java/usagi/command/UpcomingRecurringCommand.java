@@ -3,7 +3,9 @@ package usagi.command;
 import usagi.task.TaskList;
 import usagi.task.RecurringTask;
 import usagi.task.Task;
+import usagi.task.TaskView;
 import usagi.exception.UsagiException;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -15,7 +17,10 @@ import java.util.List;
  * If no days specified, shows tasks for the next 7 days.
  * If days specified, shows tasks for the next N days.
  */
-public class UpcomingRecurringCommand implements Command {
+public class UpcomingRecurringCommand implements StreamingCommand {
+    public static final String KEYWORD = "upcoming";
+    private static final DateTimeFormatter DUE_FORMAT = DateTimeFormatter.ofPattern("MMM d, yyyy");
+    
     private final TaskList tasks;
     private final String input;
     
@@ -25,12 +30,12 @@ public class UpcomingRecurringCommand implements Command {
     }
     
     @Override
-    public String execute() throws UsagiException {
+    public void writeTo(ResultSink out) throws UsagiException, IOException {
         if (input == null || input.trim().isEmpty()) {
             throw new UsagiException("Input cannot be null or empty");
         }
         
-        String content = input.substring("upcoming".length()).trim();
+        String content = input.substring(KEYWORD.length()).trim();
         int days = 7; // Default to 7 days
         
         if (!content.isEmpty()) {
@@ -44,48 +49,46 @@ public class UpcomingRecurringCommand implements Command {
             }
         }
         
-        return showUpcomingRecurringTasks(days);
+        writeUpcomingRecurringTasks(days, out);
     }
     
     /**
-     * Shows recurring tasks that are due within the specified number of days.
+     * Writes the recurring tasks that are due within the specified number of days.
      * 
      * @param days Number of days to look ahead
-     * @return Formatted string of upcoming recurring tasks
+     * @param out The sink to write the formatted tasks to
+     * @throws IOException If writing to the sink fails
      */
-    private String showUpcomingRecurringTasks(int days) {
+    private void writeUpcomingRecurringTasks(int days, ResultSink out) throws IOException {
         LocalDate today = LocalDate.now();
         LocalDate endDate = today.plusDays(days);
         
-        List<String> upcomingTasks = new ArrayList<>();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d, yyyy");
-        
+        // Collect positions first so the header can depend on whether anything matched
+        List<Integer> upcomingIndices = new ArrayList<>();
         List<Task> allTasks = tasks.all();
         for (int i = 0; i < allTasks.size(); i++) {
             Task task = allTasks.get(i);
             if (task instanceof RecurringTask) {
-                RecurringTask recurringTask = (RecurringTask) task;
-                LocalDate nextOccurrence = recurringTask.getNextOccurrence();
+                LocalDate nextOccurrence = ((RecurringTask) task).getNextOccurrence();
                 
                 // Check if the next occurrence is within the specified range
                 if (!nextOccurrence.isBefore(today) && !nextOccurrence.isAfter(endDate)) {
-                    String status = recurringTask.toString().startsWith("[R][X]") ? "[X]" : "[ ]";
-                    String formattedDate = nextOccurrence.format(formatter);
-                    String taskTitle = recurringTask.toString().substring(4); // Remove "[R]" prefix
-                    upcomingTasks.add("  " + (i + 1) + ". " + status + " " + taskTitle + 
-                                    " (due: " + formattedDate + ")");
+                    upcomingIndices.add(i);
                 }
             }
         }
         
-        if (upcomingTasks.isEmpty()) {
-            return "No recurring tasks due in the next " + days + " day(s).";
+        if (upcomingIndices.isEmpty()) {
+            out.text("No recurring tasks due in the next " + days + " day(s).");
+            return;
         }
         
-        StringBuilder result = new StringBuilder();
-        result.append("Here are your recurring tasks due in the next ").append(days).append(" day(s):\n");
-        result.append(String.join("\n", upcomingTasks));
-        
-        return result.toString();
+        out.text("Here are your recurring tasks due in the next " + days + " day(s):");
+        for (int i : upcomingIndices) {
+            RecurringTask recurringTask = (RecurringTask) allTasks.get(i);
+            TaskView view = recurringTask.toView();
+            out.text("  " + (i + 1) + ". " + view.statusMarker() + " " + view.getTitle() + " " + view.getDetails()
+                    + " (due: " + recurringTask.getNextOccurrence().format(DUE_FORMAT) + ")");
+        }
     }
 }
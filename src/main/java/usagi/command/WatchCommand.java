@@ -0,0 +1,55 @@
+package usagi.command;
+
+import usagi.service.TaskService;
+import usagi.task.TaskList;
+import usagi.exception.UsagiException;
+
+/**
+ * Command to save a query under a name, or to remove a saved query.
+ * Format: watch <name> <query> or unwatch <name>
+ * The query uses the same terms as the query command. Watching an existing
+ * name replaces its query. Use "show <name>" to see the current matches.
+ */
+public class WatchCommand implements Command {
+    public static final String KEYWORD = "watch";
+    public static final String UNWATCH_KEYWORD = "unwatch";
+
+    private final TaskService service;
+    private final TaskList tasks;
+    private final String input;
+
+    public WatchCommand(TaskService service, TaskList tasks, String input) {
+        this.service = service;
+        this.tasks = tasks;
+        this.input = input;
+    }
+
+    @Override
+    public CommandResult execute() throws UsagiException {
+        if (input.startsWith(UNWATCH_KEYWORD)) {
+            return unwatch(input.substring(UNWATCH_KEYWORD.length()).trim());
+        }
+
+        String[] parts = input.substring(KEYWORD.length()).trim().split("\\s+", 2);
+        if (parts.length != 2) {
+            throw new UsagiException("watch must be followed by a name and a query, e.g. watch due type:D done:false");
+        }
+        String name = parts[0];
+        if (!name.matches("[A-Za-z0-9_-]+")) {
+            throw new UsagiException("Search names can only contain letters, digits, '-' and '_', got: " + name);
+        }
+
+        boolean isReplacing = tasks.getSavedSearch(name) != null;
+        int matches = service.watch(name, parts[1]);
+        return CommandResult.message((isReplacing ? "Updated" : "Now watching") + " '" + name + "': "
+                + matches + " task(s) match. Type 'show " + name + "' to see them.");
+    }
+
+    private CommandResult unwatch(String name) throws UsagiException {
+        if (name.isEmpty()) {
+            throw new UsagiException("unwatch must be followed by the name of a saved search");
+        }
+        service.unwatch(name);
+        return CommandResult.message("Stopped watching '" + name + "'.");
+    }
+}
@@ -1,27 +1,73 @@
 package usagi.parser;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
 import usagi.command.Command;
 import usagi.command.CommandFactory;
+import usagi.command.CommandResult;
+import usagi.command.PagedCommand;
+import usagi.command.ResultSink;
+import usagi.command.StreamingCommand;
+import usagi.command.Suggestion;
+import usagi.command.TextSink;
+import usagi.service.TaskService;
+import usagi.task.DateAnchor;
 import usagi.task.TaskList;
 import usagi.storage.Storage;
 import usagi.exception.UsagiException;
 
 /**
  * Handles parsing and execution of user commands using the Command pattern.
- * 
+ *
  * This class is responsible for creating command objects from user input
  * and executing them, providing a clean separation between parsing and execution.
+ *
+ * Between "batch begin" and "batch end", commands run against the in-memory task
+ * list only and the storage file is written once when the batch ends.
+ *
+ * After a command that shows one page of a larger result, the parser keeps a cursor
+ * to the next page, which "more" shows. Any other command discards the cursor.
  */
 public class Parser {
+    private static final String BATCH_BEGIN = "batch begin";
+    private static final String BATCH_END = "batch end";
+    private static final String MORE = "more";
+
     private final CommandFactory commandFactory;
-    
+    private final Storage storage;
+    private BatchSession batch; // null when no batch is in progress
+    private Command cursor; // shows the next page of the last paged command, if any
+
     public Parser(TaskList tasks, Storage storage) {
         this.commandFactory = new CommandFactory(tasks, storage);
+        this.storage = storage;
+    }
+
+    /**
+     * Returns the typed API the commands operate through, which holds the undo history.
+     *
+     * @return The task service
+     */
+    public TaskService getService() {
+        return commandFactory.getService();
+    }
+
+    /**
+     * Suggests how to complete a partly typed command.
+     *
+     * @param input The input typed so far
+     * @param limit The maximum number of suggestions
+     * @return The suggestions, possibly none
+     */
+    public List<Suggestion> complete(String input, int limit) {
+        return commandFactory.complete(input, limit);
     }
-    
+
     /**
      * Checks if the input command is an exit command.
-     * 
+     *
      * @param input The user input to check
      * @return true if the input is an exit command, false otherwise
      */
@@ -29,20 +75,233 @@ public class Parser {
         return "bye".equals(input);
     }
 
+    /**
+     * Checks if the input starts or ends a batch.
+     *
+     * @param input The user input to check
+     * @return true if the input is "batch begin" or "batch end", false otherwise
+     */
+    public static boolean isBatchControl(String input) {
+        String trimmedInput = input.trim();
+        return BATCH_BEGIN.equals(trimmedInput) || BATCH_END.equals(trimmedInput);
+    }
+
     /**
      * Parses and handles user input commands, performing appropriate actions
      * on the task list and storage.
-     * 
+     *
      * @param input The user input command to process
      * @return The response message as a string
      * @throws UsagiException If an error occurs during command processing
      */
     public String handle(String input) throws UsagiException {
+        StringBuilder sb = new StringBuilder();
+        handle(input, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Parses and handles user input commands, returning the structured response
+     * so that it can be rendered without re-parsing its text.
+     *
+     * @param input The user input command to process
+     * @return The response
+     * @throws UsagiException If an error occurs during command processing
+     */
+    public CommandResult evaluate(String input) throws UsagiException {
+        CommandResult.Builder result = CommandResult.builder();
+        handle(input, result);
+        return result.build();
+    }
+
+    /**
+     * Parses and handles user input commands, writing the response to the given sink as text.
+     *
+     * Commands that support streaming write their result line by line, so large
+     * responses are never held in memory as a whole. The response is written
+     * without a trailing newline.
+     *
+     * @param input The user input command to process
+     * @param out The sink to write the response to
+     * @throws UsagiException If an error occurs during command processing or writing
+     */
+    public void handle(String input, Appendable out) throws UsagiException {
+        handle(input, new TextSink(out));
+    }
+
+    /**
+     * Parses and handles user input commands, writing the response to the given sink.
+     *
+     * @param input The user input command to process
+     * @param out The sink to write the response to
+     * @throws UsagiException If an error occurs during command processing or writing
+     */
+    public void handle(String input, ResultSink out) throws UsagiException {
         if (input == null) {
             throw new UsagiException("Input cannot be null");
         }
-        
-        Command command = commandFactory.createCommand(input);
-        return command.execute();
+
+        try {
+            String trimmedInput = input.trim();
+            if (BATCH_BEGIN.equals(trimmedInput)) {
+                beginBatch();
+                out.text("Batch started. Changes will be saved when you type '" + BATCH_END + "'.");
+                return;
+            }
+            if (BATCH_END.equals(trimmedInput)) {
+                out.text(endBatch());
+                return;
+            }
+
+            if (batch == null) {
+                run(createCommand(trimmedInput), out);
+                return;
+            }
+            try {
+                run(createCommand(trimmedInput), out);
+                batch.succeeded++;
+            } catch (UsagiException | RuntimeException e) {
+                batch.failed++;
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UsagiException("Failed to write response", e);
+        }
+    }
+
+    private Command createCommand(String trimmedInput) throws UsagiException {
+        if (!MORE.equals(trimmedInput)) {
+            return commandFactory.createCommand(trimmedInput);
+        }
+        if (cursor == null) {
+            throw new UsagiException("There is nothing more to show");
+        }
+        return cursor;
+    }
+
+    /**
+     * Executes a command and remembers where to continue if it showed a partial result.
+     *
+     * The date that relative phrases are resolved against is pinned for the duration
+     * of the command, so that "tomorrow" means the same day throughout one command.
+     */
+    private void run(Command command, ResultSink out) throws UsagiException, IOException {
+        cursor = null;
+        DateAnchor.pin();
+        try {
+            execute(command, out);
+        } finally {
+            DateAnchor.release();
+        }
+        if (command instanceof PagedCommand) {
+            cursor = ((PagedCommand) command).next();
+        }
+        String warning = getService().takeHistoryWarning();
+        if (warning != null) {
+            out.text(warning);
+        }
+    }
+
+    private static void execute(Command command, ResultSink out) throws UsagiException, IOException {
+        if (command instanceof StreamingCommand) {
+            ((StreamingCommand) command).writeTo(out);
+        } else {
+            command.execute().writeTo(out);
+        }
+    }
+
+    /**
+     * Runs a script of commands as one batch, saving the task list once at the end.
+     *
+     * A failing line is recorded and skipped; the rest of the script still runs.
+     * Blank lines are ignored, and "batch begin" and "batch end" are recorded as
+     * errors without being run, since the script is already a batch of its own.
+     *
+     * @param lines The commands to run, one per line
+     * @return A summary of the run, including the errors encountered
+     * @throws UsagiException If a batch is already in progress or the final save fails
+     */
+    public String runBatch(List<String> lines) throws UsagiException {
+        assert lines != null : "Lines cannot be null";
+        beginBatch();
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            if (isBatchControl(line)) {
+                batch.failed++;
+                errors.add("  Line " + (i + 1) + ": '" + line.trim() + "' cannot be used inside a script");
+                continue;
+            }
+            try {
+                handle(line);
+            } catch (UsagiException | RuntimeException e) {
+                errors.add("  Line " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+
+        String summary = endBatch();
+        if (errors.isEmpty()) {
+            return summary;
+        }
+        return summary + "\nErrors:\n" + String.join("\n", errors);
+    }
+
+    /**
+     * Returns whether a batch is in progress.
+     *
+     * @return true between "batch begin" and "batch end"
+     */
+    public boolean isBatching() {
+        return batch != null;
+    }
+
+    /**
+     * Starts a batch, deferring saves until {@link #endBatch()}.
+     *
+     * @throws UsagiException If a batch is already in progress
+     */
+    public void beginBatch() throws UsagiException {
+        if (batch != null) {
+            throw new UsagiException("A batch is already in progress");
+        }
+        batch = new BatchSession(System.nanoTime());
+        storage.beginDeferral();
+    }
+
+    /**
+     * Ends the current batch and saves the task list once if anything changed.
+     *
+     * @return A throughput summary of the batch
+     * @throws UsagiException If no batch is in progress or the save fails
+     */
+    public String endBatch() throws UsagiException {
+        if (batch == null) {
+            throw new UsagiException("No batch in progress. Start one with '" + BATCH_BEGIN + "'");
+        }
+        BatchSession finished = batch;
+        batch = null;
+        storage.endDeferral();
+
+        long elapsedMillis = (System.nanoTime() - finished.startNanos) / 1_000_000;
+        int total = finished.succeeded + finished.failed;
+        long perSecond = elapsedMillis == 0 ? total * 1000L : total * 1000L / elapsedMillis;
+        return "Batch complete: " + finished.succeeded + " command(s) succeeded, " + finished.failed
+                + " failed in " + elapsedMillis + " ms (" + perSecond + " commands/s).";
+    }
+
+    /**
+     * Tracks the progress of a batch.
+     */
+    private static class BatchSession {
+        private final long startNanos;
+        private int succeeded;
+        private int failed;
+
+        BatchSession(long startNanos) {
+            this.startNanos = startNanos;
+        }
     }
-}
\ No newline at end of file
+}
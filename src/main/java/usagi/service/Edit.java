@@ -0,0 +1,249 @@
+package usagi.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import usagi.exception.UsagiException;
+import usagi.task.Task;
+import usagi.task.TaskList;
+
+/**
+ * Represents a change to the task list that reverses a command, for undo and redo.
+ *
+ * An edit records only what is needed to reverse one command: the numbers of the
+ * tasks it touches and, when tasks have to be put back, those tasks. Applying an
+ * edit returns the edit that reverses it again, so the same log serves both undo
+ * and redo.
+ *
+ * Each edit also records the size of the list it applies to, so that a history
+ * that no longer matches the list (for example after the task file was edited by
+ * hand) is detected instead of changing the wrong tasks.
+ */
+abstract class Edit {
+    private final int expectedSize;
+
+    Edit(int expectedSize) {
+        this.expectedSize = expectedSize;
+    }
+
+    /**
+     * Applies the edit to the task list.
+     *
+     * @param tasks The task list
+     * @param affected Receives the tasks the edit changed, inserted or removed
+     * @return The edit that reverses this one
+     * @throws UsagiException If the list does not have the size the edit was recorded for
+     */
+    final Edit applyTo(TaskList tasks, List<Task> affected) throws UsagiException {
+        if (tasks.size() != expectedSize) {
+            throw new UsagiException("The task list no longer matches the undo history");
+        }
+        return apply(tasks, affected);
+    }
+
+    abstract Edit apply(TaskList tasks, List<Task> affected);
+
+    /**
+     * Describes what applying the edit does, such as "removed 2 task(s)".
+     */
+    abstract String describe();
+
+    /**
+     * Writes the edit as one or more lines, the first of which starts with the prefix.
+     */
+    abstract void encode(String prefix, List<String> out);
+
+    int expectedSize() {
+        return expectedSize;
+    }
+
+    /**
+     * Reads an edit written by {@link #encode(String, List)}.
+     *
+     * @param header The first line of the edit, without its prefix
+     * @param rest The following lines, from which any further lines of the edit are read
+     * @return The edit
+     * @throws IllegalArgumentException If the lines are malformed
+     */
+    static Edit decode(String header, Iterator<String> rest) {
+        String[] fields = header.split(" ");
+        if (fields.length < 2) {
+            throw new IllegalArgumentException("Malformed edit: " + header);
+        }
+        int size = Integer.parseInt(fields[1]);
+        switch (fields[0]) {
+        case "M": {
+            int[] positions = new int[fields.length - 2];
+            boolean[] states = new boolean[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                String field = fields[i + 2];
+                int colon = field.indexOf(':');
+                if (colon < 0) {
+                    throw new IllegalArgumentException("Malformed edit: " + header);
+                }
+                positions[i] = Integer.parseInt(field.substring(0, colon));
+                states[i] = "1".equals(field.substring(colon + 1));
+            }
+            return new SetDone(size, positions, states);
+        }
+        case "R": {
+            int[] positions = new int[fields.length - 2];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = Integer.parseInt(fields[i + 2]);
+            }
+            return new Remove(size, positions);
+        }
+        case "I": {
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Malformed edit: " + header);
+            }
+            int count = Integer.parseInt(fields[2]);
+            int[] positions = new int[count];
+            List<Task> inserted = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                if (!rest.hasNext()) {
+                    throw new IllegalArgumentException("Truncated edit: " + header);
+                }
+                String line = rest.next();
+                int space = line.indexOf(' ');
+                if (space < 0) {
+                    throw new IllegalArgumentException("Malformed task in edit: " + line);
+                }
+                positions[i] = Integer.parseInt(line.substring(0, space));
+                inserted.add(Task.fromLine(line.substring(space + 1)));
+            }
+            return new Insert(size, positions, inserted);
+        }
+        default:
+            throw new IllegalArgumentException("Unknown edit: " + header);
+        }
+    }
+
+    private static List<Integer> toList(int[] positions) {
+        List<Integer> list = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            list.add(position);
+        }
+        return list;
+    }
+
+    /**
+     * Sets the completion status of tasks, reversing a mark or unmark.
+     */
+    static class SetDone extends Edit {
+        private final int[] positions;
+        private final boolean[] states;
+
+        SetDone(int expectedSize, int[] positions, boolean[] states) {
+            super(expectedSize);
+            this.positions = positions;
+            this.states = states;
+        }
+
+        @Override
+        Edit apply(TaskList tasks, List<Task> affected) {
+            boolean[] previous = new boolean[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                previous[i] = tasks.get(positions[i]).isDone();
+                affected.add(states[i] ? tasks.mark(positions[i]) : tasks.unmark(positions[i]));
+            }
+            return new SetDone(expectedSize(), positions, previous);
+        }
+
+        @Override
+        String describe() {
+            boolean isAllDone = true;
+            boolean isNoneDone = true;
+            for (boolean state : states) {
+                isAllDone &= state;
+                isNoneDone &= !state;
+            }
+            String suffix = isAllDone ? " as done" : isNoneDone ? " as not done" : "";
+            return (isAllDone || isNoneDone ? "marked " : "restored the status of ")
+                    + positions.length + " task(s)" + suffix;
+        }
+
+        @Override
+        void encode(String prefix, List<String> out) {
+            StringBuilder line = new StringBuilder(prefix).append(" M ").append(expectedSize());
+            for (int i = 0; i < positions.length; i++) {
+                line.append(' ').append(positions[i]).append(':').append(states[i] ? '1' : '0');
+            }
+            out.add(line.toString());
+        }
+    }
+
+    /**
+     * Removes tasks, reversing an add.
+     */
+    static class Remove extends Edit {
+        private final int[] positions; // in increasing order
+
+        Remove(int expectedSize, int[] positions) {
+            super(expectedSize);
+            this.positions = positions;
+        }
+
+        @Override
+        Edit apply(TaskList tasks, List<Task> affected) {
+            List<Task> removed;
+            if (positions.length == 1) {
+                // A single task, removed when undoing an add or redoing a delete; no need to batch
+                removed = List.of(tasks.delete(positions[0]));
+            } else {
+                removed = tasks.deleteAll(toList(positions));
+            }
+            affected.addAll(removed);
+            return new Insert(tasks.size(), positions, removed);
+        }
+
+        @Override
+        String describe() {
+            return "removed " + positions.length + " task(s)";
+        }
+
+        @Override
+        void encode(String prefix, List<String> out) {
+            StringBuilder line = new StringBuilder(prefix).append(" R ").append(expectedSize());
+            for (int position : positions) {
+                line.append(' ').append(position);
+            }
+            out.add(line.toString());
+        }
+    }
+
+    /**
+     * Puts tasks back at the numbers they had, reversing a delete.
+     */
+    static class Insert extends Edit {
+        private final int[] positions; // in increasing order
+        private final List<Task> inserted;
+
+        Insert(int expectedSize, int[] positions, List<Task> inserted) {
+            super(expectedSize);
+            this.positions = positions;
+            this.inserted = inserted;
+        }
+
+        @Override
+        Edit apply(TaskList tasks, List<Task> affected) {
+            tasks.insertAll(toList(positions), inserted);
+            affected.addAll(inserted);
+            return new Remove(tasks.size(), positions);
+        }
+
+        @Override
+        String describe() {
+            return "restored " + positions.length + " task(s)";
+        }
+
+        @Override
+        void encode(String prefix, List<String> out) {
+            out.add(prefix + " I " + expectedSize() + " " + positions.length);
+            for (int i = 0; i < positions.length; i++) {
+                out.add(positions[i] + " " + inserted.get(i).toLine());
+            }
+        }
+    }
+}
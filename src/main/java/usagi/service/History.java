@@ -0,0 +1,251 @@
+package usagi.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import usagi.exception.UsagiException;
+import usagi.storage.Storage;
+import usagi.task.Task;
+import usagi.task.TaskList;
+
+/**
+ * Keeps the edits that undo and redo recent commands in a ring buffer of fixed depth.
+ *
+ * Slots before the cursor hold edits that undo a command; slots from the cursor on
+ * hold edits that redo an undone command. Recording a new command drops the redo
+ * edits, and once the buffer is full the oldest edit is overwritten.
+ *
+ * The history is persisted as a journal: each record, undo and redo appends the
+ * edit it produced, and the journal is rewritten from the buffer once it has grown
+ * to a few times the depth.
+ *
+ * Failing to write the journal does not fail the command: the change has been
+ * made and saved by then, and the edit stays in memory, so undo still works for
+ * the rest of the session. The failure is kept as a warning for the caller, and
+ * the next write rewrites the whole journal.
+ */
+class History {
+    private static final int COMPACT_FACTOR = 4;
+    private static final String RECORD = "+";
+    private static final String UNDO = "u";
+    private static final String REDO = "r";
+    private static final String CURSOR = "=";
+
+    private final Storage storage;
+    private final Edit[] slots;
+    private int start; // slot of the oldest edit
+    private int size;
+    private int cursor; // number of edits that can be undone
+    private int journalEntries; // entries in the journal since it was last rewritten
+    private boolean isJournalCurrent; // false until the journal was loaded or rewritten
+    private String journalWarning; // why the journal could not be written, until taken
+
+    History(Storage storage, int depth) {
+        assert depth > 0 : "History depth must be positive, got: " + depth;
+        this.storage = storage;
+        this.slots = new Edit[depth];
+    }
+
+    /**
+     * Replaces the history with the one in storage.
+     *
+     * @throws UsagiException If the stored history cannot be read or is malformed,
+     *         in which case the history starts out empty
+     */
+    void load() throws UsagiException {
+        clear();
+        List<String> lines = storage.loadHistory();
+        try {
+            Iterator<String> it = lines.iterator();
+            while (it.hasNext()) {
+                String line = it.next();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                replay(line, it);
+                journalEntries++;
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            clear();
+            throw new UsagiException("Malformed undo history: " + e.getMessage());
+        }
+        isJournalCurrent = true;
+    }
+
+    private void replay(String line, Iterator<String> rest) {
+        String kind = line.length() > 1 ? line.substring(0, 2).trim() : line;
+        String body = line.length() > 2 ? line.substring(2) : "";
+        switch (kind) {
+        case RECORD:
+            push(Edit.decode(body, rest));
+            break;
+        case UNDO:
+            if (cursor == 0) {
+                throw new IllegalArgumentException("Undo with nothing to undo");
+            }
+            cursor--;
+            slots[slot(cursor)] = Edit.decode(body, rest);
+            break;
+        case REDO:
+            if (cursor == size) {
+                throw new IllegalArgumentException("Redo with nothing to redo");
+            }
+            slots[slot(cursor)] = Edit.decode(body, rest);
+            cursor++;
+            break;
+        case CURSOR:
+            int position = Integer.parseInt(body);
+            if (position < 0 || position > size) {
+                throw new IllegalArgumentException("Cursor out of range: " + position);
+            }
+            cursor = position;
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown entry: " + line);
+        }
+    }
+
+    /**
+     * Records the edit that undoes a command that just ran, dropping any redo edits.
+     *
+     * @param edit The edit that undoes the command
+     */
+    void record(Edit edit) {
+        push(edit);
+        persist(RECORD, edit);
+    }
+
+    private void push(Edit edit) {
+        size = cursor;
+        if (size == slots.length) {
+            slots[start] = null;
+            start = (start + 1) % slots.length;
+            size--;
+        }
+        slots[slot(size)] = edit;
+        size++;
+        cursor = size;
+    }
+
+    /**
+     * Undoes the latest command that has not been undone.
+     *
+     * @param tasks The task list
+     * @param affected Receives the tasks the undo changed, inserted or removed
+     * @return The edit that was applied
+     * @throws UsagiException If there is nothing to undo or the history does not match the list
+     */
+    Edit undo(TaskList tasks, List<Task> affected) throws UsagiException {
+        if (cursor == 0) {
+            throw new UsagiException("There is nothing to undo");
+        }
+        Edit edit = slots[slot(cursor - 1)];
+        Edit inverse = apply(edit, tasks, affected);
+        cursor--;
+        slots[slot(cursor)] = inverse;
+        persist(UNDO, inverse);
+        return edit;
+    }
+
+    /**
+     * Redoes the latest undone command.
+     *
+     * @param tasks The task list
+     * @param affected Receives the tasks the redo changed, inserted or removed
+     * @return The edit that was applied
+     * @throws UsagiException If there is nothing to redo or the history does not match the list
+     */
+    Edit redo(TaskList tasks, List<Task> affected) throws UsagiException {
+        if (cursor == size) {
+            throw new UsagiException("There is nothing to redo");
+        }
+        Edit edit = slots[slot(cursor)];
+        Edit inverse = apply(edit, tasks, affected);
+        slots[slot(cursor)] = inverse;
+        cursor++;
+        persist(REDO, inverse);
+        return edit;
+    }
+
+    /**
+     * Applies an edit, discarding the whole history if it no longer matches the list.
+     */
+    private Edit apply(Edit edit, TaskList tasks, List<Task> affected) throws UsagiException {
+        try {
+            return edit.applyTo(tasks, affected);
+        } catch (UsagiException e) {
+            clear();
+            storage.saveHistory(new ArrayList<>());
+            isJournalCurrent = true;
+            throw e;
+        }
+    }
+
+    private void persist(String kind, Edit edit) {
+        try {
+            write(kind, edit);
+        } catch (UsagiException e) {
+            isJournalCurrent = false;
+            journalWarning = "Warning: the undo history could not be saved (" + e.getMessage()
+                    + "), so it will not survive a restart";
+        }
+    }
+
+    private void write(String kind, Edit edit) throws UsagiException {
+        if (!isJournalCurrent || journalEntries >= COMPACT_FACTOR * slots.length) {
+            List<String> lines = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                slots[slot(i)].encode(RECORD, lines);
+            }
+            lines.add(CURSOR + " " + cursor);
+            storage.saveHistory(lines);
+            journalEntries = size + 1;
+            isJournalCurrent = true;
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        edit.encode(kind, lines);
+        storage.appendHistory(lines);
+        journalEntries++;
+    }
+
+    /**
+     * Returns why the journal could not be written since this was last called, if it could not.
+     *
+     * @return The warning, or null if the journal was written
+     */
+    String takeJournalWarning() {
+        String warning = journalWarning;
+        journalWarning = null;
+        return warning;
+    }
+
+    /**
+     * Returns the number of commands that can be undone.
+     */
+    int undoable() {
+        return cursor;
+    }
+
+    /**
+     * Returns the number of undone commands that can be redone.
+     */
+    int redoable() {
+        return size - cursor;
+    }
+
+    private void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = null;
+        }
+        start = 0;
+        size = 0;
+        cursor = 0;
+        journalEntries = 0;
+    }
+
+    private int slot(int offset) {
+        return (start + offset) % slots.length;
+    }
+}
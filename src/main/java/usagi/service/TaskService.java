@@ -0,0 +1,585 @@
+package usagi.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+import usagi.exception.UsagiException;
+import usagi.storage.Storage;
+import usagi.task.Deadline;
+import usagi.task.Event;
+import usagi.task.Query;
+import usagi.task.RecurringTask;
+import usagi.task.Schedule;
+import usagi.task.Task;
+import usagi.task.TaskList;
+import usagi.task.TaskView;
+import usagi.task.TimeSlot;
+import usagi.task.ToDos;
+
+/**
+ * Provides typed operations on the task list for programmatic callers.
+ *
+ * Every change is saved through Storage, and results are returned as task views,
+ * so callers never format commands or parse replies. The text commands are thin
+ * adapters over this class.
+ *
+ * Tasks are identified by their 1-based number in the list, as shown by "list".
+ * Numbers of later tasks shift down when a task is deleted.
+ *
+ * Every add, mark, unmark and delete records the edit that reverses it in a history
+ * of bounded depth, so it can be undone and redone, also after a restart.
+ */
+public class TaskService {
+    private static final int MAX_INTERVAL = 365;
+    public static final int DEFAULT_HISTORY_DEPTH = 100;
+
+    private final TaskList tasks;
+    private final Storage storage;
+    private final History history;
+
+    /**
+     * Constructs a TaskService over the given task list and storage that can
+     * undo the last {@value #DEFAULT_HISTORY_DEPTH} changes.
+     *
+     * @param tasks The task list to operate on
+     * @param storage The storage that changes are saved to
+     */
+    public TaskService(TaskList tasks, Storage storage) {
+        this(tasks, storage, DEFAULT_HISTORY_DEPTH);
+    }
+
+    /**
+     * Constructs a TaskService over the given task list and storage.
+     *
+     * @param tasks The task list to operate on
+     * @param storage The storage that changes are saved to
+     * @param historyDepth The number of changes that can be undone
+     */
+    public TaskService(TaskList tasks, Storage storage, int historyDepth) {
+        assert tasks != null : "Task list cannot be null";
+        assert storage != null : "Storage cannot be null";
+        if (historyDepth <= 0) {
+            throw new IllegalArgumentException("History depth must be positive, got: " + historyDepth);
+        }
+        this.tasks = tasks;
+        this.storage = storage;
+        this.history = new History(storage, historyDepth);
+    }
+
+    /**
+     * Restores the undo history saved by a previous session. Without this, the
+     * history starts out empty and replaces the saved one on the first change.
+     *
+     * @throws UsagiException If the saved history cannot be read, in which case it is discarded
+     */
+    public void loadHistory() throws UsagiException {
+        history.load();
+    }
+
+    /**
+     * Adds a todo.
+     *
+     * @param title The title of the todo
+     * @return The added task
+     * @throws UsagiException If the title is blank or saving fails
+     */
+    public TaskView addTodo(String title) throws UsagiException {
+        return add(new ToDos(requireTitle(title), false));
+    }
+
+    /**
+     * Adds a deadline.
+     *
+     * @param title The title of the deadline
+     * @param by When the deadline is due
+     * @return The added task
+     * @throws UsagiException If the title is blank or saving fails
+     */
+    public TaskView addDeadline(String title, LocalDateTime by) throws UsagiException {
+        requireNonNull(by, "Deadline date/time");
+        return add(new Deadline(requireTitle(title), false, by));
+    }
+
+    /**
+     * Adds an event.
+     *
+     * @param title The title of the event
+     * @param from When the event starts
+     * @param to When the event ends
+     * @return The added task
+     * @throws UsagiException If the title is blank, a time is missing or saving fails
+     */
+    public TaskView addEvent(String title, LocalDateTime from, LocalDateTime to) throws UsagiException {
+        requireNonNull(from, "Event start");
+        requireNonNull(to, "Event end");
+        return add(new Event(requireTitle(title), false, from, to));
+    }
+
+    /**
+     * Adds a recurring task.
+     *
+     * @param title The title of the task
+     * @param start The start of the first occurrence
+     * @param end The end of the first occurrence
+     * @param pattern How often the task recurs
+     * @param interval The number of pattern units between occurrences, from 1 to 365
+     * @return The added task
+     * @throws UsagiException If an argument is invalid or saving fails
+     */
+    public TaskView addRecurring(String title, LocalDateTime start, LocalDateTime end,
+            RecurringTask.RecurrencePattern pattern, int interval) throws UsagiException {
+        requireNonNull(start, "Start time");
+        requireNonNull(end, "End time");
+        requireNonNull(pattern, "Recurrence pattern");
+        if (interval <= 0) {
+            throw new UsagiException("Interval must be positive, got: " + interval);
+        }
+        if (interval > MAX_INTERVAL) {
+            throw new UsagiException("Interval too large, maximum allowed is " + MAX_INTERVAL);
+        }
+        return add(new RecurringTask(requireTitle(title).trim(), false, start, end, pattern, interval));
+    }
+
+    private TaskView add(Task task) throws UsagiException {
+        tasks.add(task);
+        save();
+        history.record(new Edit.Remove(tasks.size(), new int[] {tasks.size()}));
+        return task.toView();
+    }
+
+    /**
+     * Returns the task with the given number.
+     *
+     * @param id The 1-based task number
+     * @return The task
+     * @throws UsagiException If there is no task with that number
+     */
+    public TaskView get(int id) throws UsagiException {
+        checkId(id);
+        return tasks.get(id).toView();
+    }
+
+    /**
+     * Returns the number of tasks.
+     *
+     * @return The size of the task list
+     */
+    public int size() {
+        return tasks.size();
+    }
+
+    /**
+     * Returns every task, in list order.
+     *
+     * @return The tasks
+     */
+    public List<TaskView> list() {
+        return views(tasks.all());
+    }
+
+    /**
+     * Returns the tasks whose title contains the keyword, ignoring case.
+     *
+     * @param keyword The keyword to search for
+     * @return The matching tasks, in list order
+     * @throws UsagiException If the keyword is blank
+     */
+    public List<TaskView> find(String keyword) throws UsagiException {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            throw new UsagiException("Keyword cannot be empty");
+        }
+        return views(tasks.find(keyword));
+    }
+
+    /**
+     * Runs a query, such as {@code type:D done:false before:2025-01-01}.
+     *
+     * @param queryText The query, in the syntax of {@link Query#parse(String)}
+     * @return The matching tasks and how they were found
+     * @throws UsagiException If the query is malformed
+     */
+    public QueryResult query(String queryText) throws UsagiException {
+        Query query = parseQuery(queryText);
+        Query.Result result = tasks.query(query);
+        List<Integer> ids = new ArrayList<>(result.getIndices().size());
+        for (int index : result.getIndices()) {
+            ids.add(index + 1);
+        }
+        return new QueryResult(views(result.getTasks()), ids, query.toString(), result.getPlan(),
+                result.getScanned());
+    }
+
+    /**
+     * Marks a task as done.
+     *
+     * @param id The 1-based task number
+     * @return The marked task
+     * @throws UsagiException If there is no task with that number or saving fails
+     */
+    public TaskView mark(int id) throws UsagiException {
+        return markAll(List.of(id)).get(0);
+    }
+
+    /**
+     * Marks a task as not done.
+     *
+     * @param id The 1-based task number
+     * @return The unmarked task
+     * @throws UsagiException If there is no task with that number or saving fails
+     */
+    public TaskView unmark(int id) throws UsagiException {
+        return unmarkAll(List.of(id)).get(0);
+    }
+
+    /**
+     * Marks several tasks as done and saves once. Nothing changes if any number is invalid.
+     *
+     * @param ids The 1-based task numbers
+     * @return The marked tasks
+     * @throws UsagiException If a number is invalid or saving fails
+     */
+    public List<TaskView> markAll(List<Integer> ids) throws UsagiException {
+        checkIds(ids);
+        Edit restore = statusOf(ids);
+        List<TaskView> marked = views(tasks.markAll(ids));
+        save();
+        history.record(restore);
+        return marked;
+    }
+
+    /**
+     * Marks several tasks as not done and saves once. Nothing changes if any number is invalid.
+     *
+     * @param ids The 1-based task numbers
+     * @return The unmarked tasks
+     * @throws UsagiException If a number is invalid or saving fails
+     */
+    public List<TaskView> unmarkAll(List<Integer> ids) throws UsagiException {
+        checkIds(ids);
+        Edit restore = statusOf(ids);
+        List<TaskView> unmarked = views(tasks.unmarkAll(ids));
+        save();
+        history.record(restore);
+        return unmarked;
+    }
+
+    /**
+     * Returns the edit that sets the given tasks back to their current status.
+     */
+    private Edit statusOf(List<Integer> ids) {
+        int[] positions = new int[ids.size()];
+        boolean[] states = new boolean[ids.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = ids.get(i);
+            states[i] = tasks.get(positions[i]).isDone();
+        }
+        return new Edit.SetDone(tasks.size(), positions, states);
+    }
+
+    /**
+     * Deletes a task.
+     *
+     * @param id The 1-based task number
+     * @return The deleted task
+     * @throws UsagiException If there is no task with that number or saving fails
+     */
+    public TaskView delete(int id) throws UsagiException {
+        return deleteAll(List.of(id)).get(0);
+    }
+
+    /**
+     * Deletes several tasks in one pass and saves once. Nothing changes if any number is invalid.
+     *
+     * @param ids The 1-based task numbers
+     * @return The deleted tasks, in list order
+     * @throws UsagiException If a number is invalid or saving fails
+     */
+    public List<TaskView> deleteAll(List<Integer> ids) throws UsagiException {
+        checkIds(ids);
+        return views(delete(new TreeSet<>(ids)));
+    }
+
+    /**
+     * Deletes every completed task and saves once if any were deleted.
+     *
+     * @return The deleted tasks, in list order
+     * @throws UsagiException If saving fails
+     */
+    public List<TaskView> deleteDone() throws UsagiException {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 1; i <= tasks.size(); i++) {
+            if (tasks.get(i).isDone()) {
+                ids.add(i);
+            }
+        }
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return views(delete(ids));
+    }
+
+    /**
+     * Deletes the tasks with the given numbers, which are in increasing order,
+     * and records how to put them back.
+     */
+    private List<Task> delete(Collection<Integer> sortedIds) throws UsagiException {
+        int[] positions = new int[sortedIds.size()];
+        int i = 0;
+        for (int id : sortedIds) {
+            positions[i++] = id;
+        }
+        List<Task> deleted = tasks.deleteAll(new ArrayList<>(sortedIds));
+        save();
+        history.record(new Edit.Insert(tasks.size(), positions, deleted));
+        return deleted;
+    }
+
+    /**
+     * Reverses the latest change that has not been undone.
+     *
+     * @return What was undone and the tasks involved
+     * @throws UsagiException If there is nothing to undo, the history no longer matches
+     *         the task list, or saving fails
+     */
+    public Change undo() throws UsagiException {
+        List<Task> affected = new ArrayList<>();
+        Edit edit = history.undo(tasks, affected);
+        save();
+        return new Change(edit.describe(), views(affected));
+    }
+
+    /**
+     * Applies the latest undone change again.
+     *
+     * @return What was redone and the tasks involved
+     * @throws UsagiException If there is nothing to redo, the history no longer matches
+     *         the task list, or saving fails
+     */
+    public Change redo() throws UsagiException {
+        List<Task> affected = new ArrayList<>();
+        Edit edit = history.redo(tasks, affected);
+        save();
+        return new Change(edit.describe(), views(affected));
+    }
+
+    /**
+     * Returns why the undo history could not be saved by the latest changes, if it
+     * could not. The changes themselves were made and saved, and can still be
+     * undone until the application exits.
+     *
+     * @return The warning to show the user, or null if the history was saved
+     */
+    public String takeHistoryWarning() {
+        return history.takeJournalWarning();
+    }
+
+    /**
+     * Returns the slots of other events and recurring tasks that overlap a task.
+     *
+     * @param id The 1-based task number
+     * @param from The start of the window to check
+     * @param to The end of the window to check
+     * @return The overlapping slots, ordered by start time
+     * @throws UsagiException If there is no task with that number
+     */
+    public List<TimeSlot> conflictsWith(int id, LocalDateTime from, LocalDateTime to) throws UsagiException {
+        checkId(id);
+        return Schedule.conflictsWith(tasks.all(), tasks.get(id), from, to);
+    }
+
+    /**
+     * Saves a query under a name, replacing any saved search with that name.
+     * Relative dates in the query are saved as the dates they stand for today,
+     * so the search does not change meaning on a later day.
+     *
+     * @param name The name of the search
+     * @param queryText The query
+     * @return The number of tasks currently matching
+     * @throws UsagiException If the query is malformed or saving fails
+     */
+    public int watch(String name, String queryText) throws UsagiException {
+        if (name == null || name.isEmpty()) {
+            throw new UsagiException("Search name cannot be empty");
+        }
+        String normalized = parseQuery(queryText).toText();
+        int size = tasks.watch(name, normalized).size();
+        storage.saveSearches(tasks.savedSearches());
+        return size;
+    }
+
+    /**
+     * Removes a saved search.
+     *
+     * @param name The name of the search
+     * @throws UsagiException If there is no saved search with that name or saving fails
+     */
+    public void unwatch(String name) throws UsagiException {
+        if (tasks.unwatch(name) == null) {
+            throw new UsagiException("There is no saved search named '" + name + "'");
+        }
+        storage.saveSearches(tasks.savedSearches());
+    }
+
+    /**
+     * Starts a batch: changes are kept in memory until {@link #endBatch()} saves them once.
+     */
+    public void beginBatch() {
+        storage.beginDeferral();
+    }
+
+    /**
+     * Ends a batch and saves the task list once if anything changed.
+     *
+     * @throws UsagiException If saving fails
+     */
+    public void endBatch() throws UsagiException {
+        storage.endDeferral();
+    }
+
+    private void save() throws UsagiException {
+        storage.save(tasks.all());
+    }
+
+    private void checkId(int id) throws UsagiException {
+        if (id <= 0 || id > tasks.size()) {
+            throw new UsagiException("Invalid task number: " + id + ". You have " + tasks.size() + " task(s).");
+        }
+    }
+
+    private void checkIds(List<Integer> ids) throws UsagiException {
+        for (int id : ids) {
+            checkId(id);
+        }
+    }
+
+    private static Query parseQuery(String queryText) throws UsagiException {
+        if (queryText == null || queryText.trim().isEmpty()) {
+            throw new UsagiException("Query cannot be empty");
+        }
+        try {
+            return Query.parse(queryText);
+        } catch (IllegalArgumentException e) {
+            throw new UsagiException(e.getMessage());
+        }
+    }
+
+    private static String requireTitle(String title) throws UsagiException {
+        if (title == null || title.trim().isEmpty()) {
+            throw new UsagiException("Task title cannot be empty");
+        }
+        return title;
+    }
+
+    private static void requireNonNull(Object value, String what) throws UsagiException {
+        if (value == null) {
+            throw new UsagiException(what + " cannot be empty");
+        }
+    }
+
+    private static List<TaskView> views(List<Task> list) {
+        List<TaskView> views = new ArrayList<>(list.size());
+        for (Task task : list) {
+            views.add(task.toView());
+        }
+        return views;
+    }
+
+    /**
+     * Represents a change made by undo or redo.
+     */
+    public static class Change {
+        private final String description;
+        private final List<TaskView> tasks;
+
+        private Change(String description, List<TaskView> tasks) {
+            this.description = description;
+            this.tasks = Collections.unmodifiableList(tasks);
+        }
+
+        /**
+         * Returns what the change did.
+         *
+         * @return A description such as "restored 2 task(s)"
+         */
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * Returns the tasks that were changed, restored or removed, in list order.
+         *
+         * @return The tasks
+         */
+        public List<TaskView> getTasks() {
+            return tasks;
+        }
+    }
+
+    /**
+     * Represents the outcome of a query.
+     */
+    public static class QueryResult {
+        private final List<TaskView> tasks;
+        private final List<Integer> ids;
+        private final String query;
+        private final String plan;
+        private final int scanned;
+
+        private QueryResult(List<TaskView> tasks, List<Integer> ids, String query, String plan, int scanned) {
+            this.tasks = Collections.unmodifiableList(tasks);
+            this.ids = Collections.unmodifiableList(ids);
+            this.query = query;
+            this.plan = plan;
+            this.scanned = scanned;
+        }
+
+        /**
+         * Returns the matching tasks, in result order.
+         *
+         * @return The matching tasks
+         */
+        public List<TaskView> getTasks() {
+            return tasks;
+        }
+
+        /**
+         * Returns the 1-based numbers of the matching tasks, in result order.
+         *
+         * @return The task numbers
+         */
+        public List<Integer> getIds() {
+            return ids;
+        }
+
+        /**
+         * Returns the query in normalized form.
+         *
+         * @return The normalized query
+         */
+        public String getQuery() {
+            return query;
+        }
+
+        /**
+         * Returns a description of how the tasks were found.
+         *
+         * @return The plan, such as "type index (D)" or "full scan"
+         */
+        public String getPlan() {
+            return plan;
+        }
+
+        /**
+         * Returns the number of tasks the query examined.
+         *
+         * @return The number of tasks tested against the query
+         */
+        public int getScanned() {
+            return scanned;
+        }
+    }
+}
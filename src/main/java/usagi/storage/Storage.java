@@ -10,7 +10,9 @@ package usagi.storage;
  * </ul>
  * 
  * The file is stored at the specified path. If the file or folder does not exist,
- * Storage will create them as needed.
+ * Storage will create them as needed. Saved searches and the undo history are
+ * kept in separate files next to it, named after the task file with a "-searches"
+ * and a "-history" suffix.
  */
 
 import java.io.IOException;
@@ -18,11 +20,19 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
 import java.util.stream.Collectors;
+import usagi.task.SavedSearch;
 import usagi.task.Task;
 import usagi.exception.UsagiException;
 
 public class Storage {
+    private static final String SEARCH_SEPARATOR = " | ";
+
     private final Path filePath;
+    private final Path searchesPath;
+    private final Path historyPath;
+    private boolean isDeferring;
+    private List<Task> pendingTasks; // latest list passed to save() while deferring
+    private final List<String> pendingHistory = new ArrayList<>(); // history appended while deferring
 
     /**
      * Constructs a Storage instance with the specified file path.
@@ -33,6 +43,15 @@ public class Storage {
         assert filePath != null : "File path cannot be null";
         assert !filePath.trim().isEmpty() : "File path cannot be empty";
         this.filePath = Path.of(filePath);
+        this.searchesPath = siblingPath(this.filePath, "-searches");
+        this.historyPath = siblingPath(this.filePath, "-history");
+    }
+
+    private static Path siblingPath(Path tasksPath, String suffix) {
+        String name = tasksPath.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return tasksPath.resolveSibling(base + suffix + ".txt");
     }
 
     /**
@@ -87,6 +106,152 @@ public class Storage {
      */
     public void save(List<Task> tasks) throws UsagiException {
         assert tasks != null : "Task list cannot be null";
+        if (isDeferring) {
+            pendingTasks = tasks;
+            return;
+        }
+        write(tasks);
+    }
+
+    /**
+     * Starts deferring writes. Until {@link #endDeferral()} is called, save() only
+     * remembers the latest task list instead of rewriting the file.
+     */
+    public void beginDeferral() {
+        isDeferring = true;
+    }
+
+    /**
+     * Stops deferring writes and persists the latest task list passed to save(), if any,
+     * along with the history appended in the meantime.
+     *
+     * @return true if the task list was written
+     * @throws UsagiException If an error occurs during file writing
+     */
+    public boolean endDeferral() throws UsagiException {
+        isDeferring = false;
+        if (!pendingHistory.isEmpty()) {
+            List<String> history = new ArrayList<>(pendingHistory);
+            pendingHistory.clear();
+            appendHistory(history);
+        }
+        List<Task> tasks = pendingTasks;
+        pendingTasks = null;
+        if (tasks == null) {
+            return false;
+        }
+        write(tasks);
+        return true;
+    }
+
+    /**
+     * Loads the lines of the undo history file.
+     *
+     * @return The lines, or an empty list if the file does not exist
+     * @throws UsagiException If the file cannot be read
+     */
+    public List<String> loadHistory() throws UsagiException {
+        try {
+            if (!Files.exists(historyPath)) return new ArrayList<>();
+            return Files.readAllLines(historyPath, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UsagiException("Load failed from " + historyPath, e);
+        }
+    }
+
+    /**
+     * Appends lines to the undo history file. While writes are deferred, the lines
+     * are kept in memory until {@link #endDeferral()}.
+     *
+     * @param lines The lines to append
+     * @throws UsagiException If an error occurs during file writing
+     */
+    public void appendHistory(List<String> lines) throws UsagiException {
+        assert lines != null : "History lines cannot be null";
+        if (isDeferring) {
+            pendingHistory.addAll(lines);
+            return;
+        }
+        try {
+            ensureParentDirs(historyPath);
+            Files.write(historyPath, lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UsagiException("Save failed to " + historyPath, e);
+        }
+    }
+
+    /**
+     * Replaces the contents of the undo history file, discarding any appends
+     * still pending.
+     *
+     * @param lines The lines to save
+     * @throws UsagiException If an error occurs during file writing
+     */
+    public void saveHistory(List<String> lines) throws UsagiException {
+        assert lines != null : "History lines cannot be null";
+        pendingHistory.clear();
+        try {
+            ensureParentDirs(historyPath);
+            Files.write(historyPath, lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new UsagiException("Save failed to " + historyPath, e);
+        }
+    }
+
+    /**
+     * Loads saved searches from the searches file.
+     * 
+     * If the file does not exist, returns an empty map. Each non-empty line
+     * holds a name and a query separated by " | ".
+     *
+     * @return The query text of each saved search by name, in file order
+     * @throws UsagiException If the file cannot be read or a line is malformed
+     */
+    public Map<String, String> loadSearches() throws UsagiException {
+        try {
+            Map<String, String> searches = new LinkedHashMap<>();
+            if (!Files.exists(searchesPath)) return searches;
+            for (String line : Files.readAllLines(searchesPath, StandardCharsets.UTF_8)) {
+                String s = line.strip();
+                if (s.isEmpty()) continue;
+                int separator = s.indexOf(SEARCH_SEPARATOR);
+                if (separator <= 0) {
+                    throw new UsagiException("Malformed saved search: " + s);
+                }
+                searches.put(s.substring(0, separator), s.substring(separator + SEARCH_SEPARATOR.length()));
+            }
+            return searches;
+        } catch (IOException e) {
+            throw new UsagiException("Load failed from " + searchesPath, e);
+        }
+    }
+
+    /**
+     * Saves the given saved searches to the searches file, replacing its contents.
+     *
+     * @param searches The saved searches to save
+     * @throws UsagiException If an error occurs during file writing
+     */
+    public void saveSearches(Collection<SavedSearch> searches) throws UsagiException {
+        assert searches != null : "Searches cannot be null";
+        try {
+            ensureParentDirs(searchesPath);
+            List<String> lines = searches.stream()
+                    .map(search -> search.getName() + SEARCH_SEPARATOR + search.getQueryText())
+                    .collect(Collectors.toList());
+            Files.write(searchesPath, lines,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new UsagiException("Save failed to " + searchesPath, e);
+        }
+    }
+
+    private void write(List<Task> tasks) throws UsagiException {
         try {
             ensureParentDirs(filePath);
             List<String> lines = tasks.stream()
@@ -0,0 +1,69 @@
+package usagi.task;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Provides the date that relative phrases such as "tomorrow" are resolved against.
+ *
+ * The current date is cached until midnight, so resolving a phrase does not
+ * consult the clock and time zone rules every time. While a command runs, the
+ * parser pins the date for its thread, so every date in one command is resolved
+ * against the same day even if midnight passes during the command.
+ */
+public final class DateAnchor {
+    private static final ThreadLocal<LocalDate> pinned = new ThreadLocal<>();
+    private static volatile CachedDay cachedDay;
+
+    private DateAnchor() {
+    }
+
+    /**
+     * Returns the date relative phrases are resolved against.
+     *
+     * @return The pinned date for this thread, or else the current date
+     */
+    public static LocalDate today() {
+        LocalDate date = pinned.get();
+        return date != null ? date : currentDay();
+    }
+
+    /**
+     * Fixes the date returned by {@link #today()} on this thread until {@link #release()}.
+     */
+    public static void pin() {
+        pinned.set(currentDay());
+    }
+
+    /**
+     * Releases a date pinned with {@link #pin()}.
+     */
+    public static void release() {
+        pinned.remove();
+    }
+
+    private static LocalDate currentDay() {
+        CachedDay day = cachedDay;
+        long now = System.currentTimeMillis();
+        if (day == null || now >= day.endMillis) {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate date = LocalDate.now(zone);
+            day = new CachedDay(date, date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+            cachedDay = day;
+        }
+        return day.date;
+    }
+
+    /**
+     * Pairs a date with the instant at which it stops being the current date.
+     */
+    private static final class CachedDay {
+        private final LocalDate date;
+        private final long endMillis;
+
+        CachedDay(LocalDate date, long endMillis) {
+            this.date = date;
+            this.endMillis = endMillis;
+        }
+    }
+}
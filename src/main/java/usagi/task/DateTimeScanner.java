@@ -0,0 +1,218 @@
+package usagi.task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Recognises the date and date-time shapes accepted by Task in a single pass.
+ *
+ * Supported shapes are ISO ({@code yyyy-MM-dd}, {@code yyyy-MM-ddTHH:mm[:ss]}),
+ * {@code yyyy-MM-dd HHmm}, and {@code d/M/yyyy} or {@code M/d/yyyy}, each optionally
+ * followed by {@code HHmm}. Values are built directly from the digits without going
+ * through a formatter, and an unrecognised or invalid input yields null instead of an
+ * exception so callers can decide whether a slower fallback is worthwhile.
+ */
+final class DateTimeScanner {
+    // Day and month may carry leading zeros, as pattern-based parsing allows
+    private static final int MAX_FIELD_DIGITS = 9;
+
+    private DateTimeScanner() {
+    }
+
+    /**
+     * Scans a date-only input.
+     *
+     * @param s The input to scan
+     * @return The date, or null if the input is not a supported date shape
+     */
+    static LocalDate scanDate(String s) {
+        int n = s.length();
+        if (isIsoDatePrefix(s)) {
+            return n == 10 ? isoDate(s, false) : null;
+        }
+        int[] slash = slashDate(s);
+        if (slash == null || slash[3] != n) {
+            return null;
+        }
+        return resolveSlashDate(slash);
+    }
+
+    /**
+     * Scans a date-time input. A date without a time resolves to the start of that day.
+     *
+     * @param s The input to scan
+     * @return The date-time, or null if the input is not a supported shape
+     */
+    static LocalDateTime scanDateTime(String s) {
+        int n = s.length();
+        if (isIsoDatePrefix(s)) {
+            if (n == 10) {
+                LocalDate date = isoDate(s, false);
+                return date == null ? null : date.atStartOfDay();
+            }
+            if (s.charAt(10) == 'T') {
+                return isoDateTime(s);
+            }
+            if (s.charAt(10) == ' ' && n == 15) {
+                LocalDate date = isoDate(s, true);
+                return date == null ? null : withCompactTime(date, s, 11);
+            }
+            return null;
+        }
+
+        int[] slash = slashDate(s);
+        if (slash == null) {
+            return null;
+        }
+        int end = slash[3];
+        if (end == n) {
+            LocalDate date = resolveSlashDate(slash);
+            return date == null ? null : date.atStartOfDay();
+        }
+        if (s.charAt(end) == ' ' && n == end + 5) {
+            LocalDate date = resolveSlashDate(slash);
+            return date == null ? null : withCompactTime(date, s, end + 1);
+        }
+        return null;
+    }
+
+    private static boolean isIsoDatePrefix(String s) {
+        return s.length() >= 10 && s.charAt(4) == '-' && s.charAt(7) == '-';
+    }
+
+    /**
+     * Builds the date from an ISO {@code yyyy-MM-dd} prefix.
+     *
+     * @param lenient Whether an out-of-range day is clamped to the end of the month,
+     *                matching the smart resolution of pattern-based parsing
+     */
+    private static LocalDate isoDate(String s, boolean lenient) {
+        int year = digits(s, 0, 4);
+        int month = digits(s, 5, 7);
+        int day = digits(s, 8, 10);
+        if (year < 0 || month < 0 || day < 0) {
+            return null;
+        }
+        return lenient ? clampedDate(year, month, day) : strictDate(year, month, day);
+    }
+
+    /**
+     * Builds the date-time from an ISO {@code yyyy-MM-ddTHH:mm[:ss]} input.
+     */
+    private static LocalDateTime isoDateTime(String s) {
+        int n = s.length();
+        if ((n != 16 && n != 19) || s.charAt(13) != ':') {
+            return null;
+        }
+        LocalDate date = isoDate(s, false);
+        int hour = digits(s, 11, 13);
+        int minute = digits(s, 14, 16);
+        int second = 0;
+        if (n == 19) {
+            if (s.charAt(16) != ':') {
+                return null;
+            }
+            second = digits(s, 17, 19);
+        }
+        if (date == null || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        return date.atTime(hour, minute, second);
+    }
+
+    /**
+     * Applies a four-digit {@code HHmm} time starting at the given offset.
+     */
+    private static LocalDateTime withCompactTime(LocalDate date, String s, int offset) {
+        int hour = digits(s, offset, offset + 2);
+        int minute = digits(s, offset + 2, offset + 4);
+        if (hour == 24 && minute == 0) {
+            // Smart resolution treats 2400 as midnight at the end of the day
+            return date.plusDays(1).atStartOfDay();
+        }
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return null;
+        }
+        return date.atTime(hour, minute);
+    }
+
+    /**
+     * Splits a {@code a/b/yyyy} prefix into its numbers.
+     *
+     * @return {first, second, year, end index}, or null if the prefix does not match
+     */
+    private static int[] slashDate(String s) {
+        int n = s.length();
+        int i = 0;
+        int first = 0;
+        while (i < n && i < MAX_FIELD_DIGITS && isDigit(s.charAt(i))) {
+            first = first * 10 + (s.charAt(i) - '0');
+            i++;
+        }
+        if (i == 0 || i >= n || s.charAt(i) != '/') {
+            return null;
+        }
+        int j = i + 1;
+        int second = 0;
+        while (j < n && j - i - 1 < MAX_FIELD_DIGITS && isDigit(s.charAt(j))) {
+            second = second * 10 + (s.charAt(j) - '0');
+            j++;
+        }
+        if (j == i + 1 || j >= n || s.charAt(j) != '/') {
+            return null;
+        }
+        int year = digits(s, j + 1, j + 5);
+        if (year < 0 || (j + 5 < n && isDigit(s.charAt(j + 5)))) {
+            return null;
+        }
+        return new int[]{first, second, year, j + 5};
+    }
+
+    /**
+     * Resolves a slash date as day/month first, then as month/day.
+     */
+    private static LocalDate resolveSlashDate(int[] parts) {
+        LocalDate dayFirst = clampedDate(parts[2], parts[1], parts[0]);
+        return dayFirst != null ? dayFirst : clampedDate(parts[2], parts[0], parts[1]);
+    }
+
+    private static LocalDate strictDate(int year, int month, int day) {
+        if (month < 1 || month > 12 || day < 1 || day > LocalDate.of(year, month, 1).lengthOfMonth()) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    private static LocalDate clampedDate(int year, int month, int day) {
+        // Pattern-based parsing reads the year as year-of-era, which has no year zero
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return null;
+        }
+        LocalDate first = LocalDate.of(year, month, 1);
+        return first.withDayOfMonth(Math.min(day, first.lengthOfMonth()));
+    }
+
+    /**
+     * Reads the digits in [from, to) as a number.
+     *
+     * @return The number, or -1 if the range is out of bounds or contains a non-digit
+     */
+    private static int digits(String s, int from, int to) {
+        if (to > s.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -39,8 +39,13 @@ public class Deadline extends Task {
         return new String[]{by.toString()};
     }
 
+    @Override
+    String details() {
+        return "(by: " + UI.format(by) + ")";
+    }
+
     @Override
     public String toString() {
-        return "[D]" + super.toString() + " (by: " + UI.format(by) + ")";
+        return "[D]" + super.toString() + " " + details();
     }
 }
@@ -43,8 +43,13 @@ public class Event extends Task {
         return new String[]{from.toString(), to.toString()};
     }
 
+    @Override
+    String details() {
+        return "(from: " + UI.format(from) + " to: " + UI.format(to) + ")";
+    }
+
     @Override
     public String toString() {
-        return "[E]" + super.toString() + " (from: " + UI.format(from) + " to: " + UI.format(to) + ")";
+        return "[E]" + super.toString() + " " + details();
     }
 }
\ No newline at end of file
@@ -0,0 +1,710 @@
+package usagi.task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Represents a compiled task query, such as
+ * {@code type:D done:false before:2025-01-01 title:"report" sort:date limit:10}.
+ *
+ * A query is parsed once into a predicate tree. Terms next to each other must all
+ * match; {@code or} joins alternatives, {@code not} (or a leading {@code -}) negates
+ * a term, and parentheses group terms. Supported terms are:
+ * <ul>
+ *   <li>{@code type:T|D|E|R} (or todo, deadline, event, recurring)</li>
+ *   <li>{@code done:true|false}</li>
+ *   <li>{@code before:<date>} and {@code after:<date>}, which compare the task's date:
+ *       the deadline, the event start, or the next occurrence of a recurring task</li>
+ *   <li>{@code title:<text>} or a bare word, which match a case-insensitive substring
+ *       of the title; quote text that contains spaces</li>
+ * </ul>
+ * The options {@code sort:position|date|title} and {@code limit:N} control the
+ * order and number of results.
+ *
+ * When run against a task list, the query picks the cheapest access path among the
+ * list's indexes (date range, type, done status) or a full scan, and stops early
+ * once enough results are found if the access path already yields the requested order.
+ */
+public class Query {
+    /**
+     * The order of query results.
+     */
+    public enum Order {
+        POSITION, DATE, TITLE
+    }
+
+    private static final Comparator<LocalDate> DATES_NULLS_LAST = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private final Node root; // null when every task matches
+    private final Order order;
+    private final int limit;
+
+    private Query(Node root, Order order, int limit) {
+        this.root = root;
+        this.order = order;
+        this.limit = limit;
+    }
+
+    /**
+     * Compiles a query.
+     *
+     * @param text The query text
+     * @return The compiled query
+     * @throws IllegalArgumentException If the query is malformed
+     */
+    public static Query parse(String text) {
+        assert text != null : "Query cannot be null";
+        return new QueryReader(tokenize(text)).read();
+    }
+
+    /**
+     * Returns whether a task satisfies the query's predicate.
+     *
+     * @param task The task to test
+     * @return true if the task matches
+     */
+    public boolean matches(Task task) {
+        return root == null || root.test(task);
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    /**
+     * Returns the maximum number of results.
+     *
+     * @return The limit, or Integer.MAX_VALUE if there is none
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the date a task is compared by in date terms and date ordering.
+     *
+     * @param task The task
+     * @return The deadline, the event start, the next occurrence of a recurring task,
+     *         or null for tasks without a date
+     */
+    static LocalDate dateOf(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).by.toLocalDate();
+        } else if (task instanceof Event) {
+            return ((Event) task).from.toLocalDate();
+        } else if (task instanceof RecurringTask) {
+            return ((RecurringTask) task).getNextOccurrence();
+        }
+        return null;
+    }
+
+    /**
+     * Runs the query over a task list using the given indexes of that list.
+     *
+     * @param tasks The tasks, in list order
+     * @param index The indexes built from exactly these tasks
+     * @return The matching tasks and how they were found
+     */
+    Result execute(List<Task> tasks, TaskIndex index) {
+        Plan plan = plan(index);
+        boolean isInOrder = plan.isDateOrdered ? order == Order.DATE : order == Order.POSITION;
+        List<Integer> matches = new ArrayList<>();
+        int scanned = 0;
+        for (int i = 0; i < plan.count(); i++) {
+            int position = plan.positionAt(i);
+            scanned++;
+            if (matches(tasks.get(position))) {
+                matches.add(position);
+                if (isInOrder && matches.size() == limit) {
+                    break;
+                }
+            }
+        }
+
+        if (!isInOrder) {
+            matches.sort(comparator(tasks));
+            if (matches.size() > limit) {
+                matches = new ArrayList<>(matches.subList(0, limit));
+            }
+        }
+        return new Result(tasks, matches, plan.description, scanned);
+    }
+
+    private Comparator<Integer> comparator(List<Task> tasks) {
+        switch (order) {
+        case DATE:
+            return Comparator.<Integer, LocalDate>comparing(i -> dateOf(tasks.get(i)), DATES_NULLS_LAST)
+                    .thenComparing(Comparator.naturalOrder());
+        case TITLE:
+            return Comparator.<Integer, String>comparing(i -> tasks.get(i).getTitle().toLowerCase())
+                    .thenComparing(Comparator.naturalOrder());
+        default:
+            return Comparator.naturalOrder();
+        }
+    }
+
+    /**
+     * Chooses the access path with the fewest candidate tasks among the indexable
+     * terms that every result must satisfy.
+     */
+    private Plan plan(TaskIndex index) {
+        Plan best = Plan.fullScan(index.size());
+        List<Node> conjuncts = root == null ? List.of()
+                : root instanceof And ? ((And) root).children : List.of(root);
+
+        LocalDate from = null; // inclusive
+        LocalDate to = null; // exclusive
+        boolean hasDateTerm = false;
+        for (Node node : conjuncts) {
+            if (node instanceof TypeTerm) {
+                String type = ((TypeTerm) node).type;
+                best = cheaper(best, Plan.positions("type index (" + type + ")", index.ofType(type)));
+            } else if (node instanceof DoneTerm) {
+                boolean isDone = ((DoneTerm) node).isDone;
+                best = cheaper(best, Plan.positions("done index (" + isDone + ")", index.withDone(isDone)));
+            } else if (node instanceof DateTerm) {
+                DateTerm term = (DateTerm) node;
+                hasDateTerm = true;
+                if (term.isBefore) {
+                    to = to == null || term.date.isBefore(to) ? term.date : to;
+                } else {
+                    LocalDate next = term.date.plusDays(1);
+                    from = from == null || next.isAfter(from) ? next : from;
+                }
+            }
+        }
+        if (hasDateTerm) {
+            int start = index.firstOnOrAfter(from);
+            int end = to == null ? index.datedCount() : index.firstOnOrAfter(to);
+            String range = "[" + (from == null ? "start" : from) + ", " + (to == null ? "end" : to) + ")";
+            best = cheaper(best, Plan.dates("date index " + range, index, start, Math.max(start, end)));
+        }
+        return best;
+    }
+
+    private static Plan cheaper(Plan current, Plan candidate) {
+        return candidate.count() < current.count() ? candidate : current;
+    }
+
+    /**
+     * Returns query text that parses back to this query. Relative dates are
+     * written as the dates they were resolved to, so the text keeps its meaning
+     * on later days.
+     *
+     * @return The query text
+     */
+    public String toText() {
+        return ((root == null ? "" : root.toString()) + options()).trim();
+    }
+
+    /**
+     * Returns the query in normalized form.
+     */
+    @Override
+    public String toString() {
+        return (root == null ? "(all tasks)" : root.toString()) + options();
+    }
+
+    private String options() {
+        StringBuilder sb = new StringBuilder();
+        if (order != Order.POSITION) {
+            sb.append(" sort:").append(order.name().toLowerCase());
+        }
+        if (limit != Integer.MAX_VALUE) {
+            sb.append(" limit:").append(limit);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Represents the outcome of running a query.
+     */
+    public static class Result {
+        private final List<Task> tasks;
+        private final List<Integer> indices;
+        private final String plan;
+        private final int scanned;
+
+        private Result(List<Task> allTasks, List<Integer> indices, String plan, int scanned) {
+            List<Task> matched = new ArrayList<>(indices.size());
+            for (int i : indices) {
+                matched.add(allTasks.get(i));
+            }
+            this.tasks = Collections.unmodifiableList(matched);
+            this.indices = Collections.unmodifiableList(indices);
+            this.plan = plan;
+            this.scanned = scanned;
+        }
+
+        /**
+         * Returns the matching tasks in result order.
+         *
+         * @return The matching tasks
+         */
+        public List<Task> getTasks() {
+            return tasks;
+        }
+
+        /**
+         * Returns the 0-based list positions of the matching tasks, in result order.
+         *
+         * @return The positions
+         */
+        public List<Integer> getIndices() {
+            return indices;
+        }
+
+        /**
+         * Returns a description of the access path that was used.
+         *
+         * @return The plan, such as "type index (D)" or "full scan"
+         */
+        public String getPlan() {
+            return plan;
+        }
+
+        /**
+         * Returns the number of tasks the query examined.
+         *
+         * @return The number of candidate tasks tested against the predicate
+         */
+        public int getScanned() {
+            return scanned;
+        }
+    }
+
+    /**
+     * Describes an access path: which positions to examine, in which order.
+     */
+    private static final class Plan {
+        private final String description;
+        private final int[] positions; // null for a full scan or a date range
+        private final TaskIndex dateIndex; // non-null for a date range
+        private final int start;
+        private final int end;
+        private final boolean isDateOrdered;
+
+        private Plan(String description, int[] positions, TaskIndex dateIndex, int start, int end) {
+            this.description = description;
+            this.positions = positions;
+            this.dateIndex = dateIndex;
+            this.start = start;
+            this.end = end;
+            this.isDateOrdered = dateIndex != null;
+        }
+
+        static Plan fullScan(int size) {
+            return new Plan("full scan", null, null, 0, size);
+        }
+
+        static Plan positions(String description, int[] positions) {
+            return new Plan(description, positions, null, 0, positions.length);
+        }
+
+        static Plan dates(String description, TaskIndex index, int start, int end) {
+            return new Plan(description, null, index, start, end);
+        }
+
+        int count() {
+            return end - start;
+        }
+
+        int positionAt(int i) {
+            if (positions != null) {
+                return positions[i];
+            }
+            return dateIndex != null ? dateIndex.positionByDate(start + i) : i;
+        }
+    }
+
+    /**
+     * Represents a node of the predicate tree.
+     */
+    private interface Node {
+        boolean test(Task task);
+    }
+
+    private static final class TypeTerm implements Node {
+        private final String type;
+
+        TypeTerm(String type) {
+            this.type = type;
+        }
+
+        @Override
+        public boolean test(Task task) {
+            return task.type().equals(type);
+        }
+
+        @Override
+        public String toString() {
+            return "type:" + type;
+        }
+    }
+
+    private static final class DoneTerm implements Node {
+        private final boolean isDone;
+
+        DoneTerm(boolean isDone) {
+            this.isDone = isDone;
+        }
+
+        @Override
+        public boolean test(Task task) {
+            return task.isDone() == isDone;
+        }
+
+        @Override
+        public String toString() {
+            return "done:" + isDone;
+        }
+    }
+
+    private static final class DateTerm implements Node {
+        private final boolean isBefore;
+        private final LocalDate date;
+
+        DateTerm(boolean isBefore, LocalDate date) {
+            this.isBefore = isBefore;
+            this.date = date;
+        }
+
+        @Override
+        public boolean test(Task task) {
+            LocalDate taskDate = dateOf(task);
+            return taskDate != null && (isBefore ? taskDate.isBefore(date) : taskDate.isAfter(date));
+        }
+
+        @Override
+        public String toString() {
+            return (isBefore ? "before:" : "after:") + date;
+        }
+    }
+
+    private static final class TitleTerm implements Node {
+        private final String text;
+
+        TitleTerm(String text) {
+            this.text = text.toLowerCase();
+        }
+
+        @Override
+        public boolean test(Task task) {
+            return task.getTitle().toLowerCase().contains(text);
+        }
+
+        @Override
+        public String toString() {
+            return "title:\"" + text + "\"";
+        }
+    }
+
+    private static final class Not implements Node {
+        private final Node child;
+
+        Not(Node child) {
+            this.child = child;
+        }
+
+        @Override
+        public boolean test(Task task) {
+            return !child.test(task);
+        }
+
+        @Override
+        public String toString() {
+            return "not " + child;
+        }
+    }
+
+    private static final class And implements Node {
+        private final List<Node> children;
+
+        And(List<Node> children) {
+            this.children = children;
+        }
+
+        @Override
+        public boolean test(Task task) {
+            for (Node child : children) {
+                if (!child.test(task)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (Node child : children) {
+                if (sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(child);
+            }
+            return sb.toString();
+        }
+    }
+
+    private static final class Or implements Node {
+        private final List<Node> children;
+
+        Or(List<Node> children) {
+            this.children = children;
+        }
+
+        @Override
+        public boolean test(Task task) {
+            for (Node child : children) {
+                if (child.test(task)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("(");
+            for (Node child : children) {
+                if (sb.length() > 1) {
+                    sb.append(" or ");
+                }
+                sb.append(child);
+            }
+            return sb.append(')').toString();
+        }
+    }
+
+    /**
+     * Represents a word of query text. Quoted words are never treated as keywords.
+     */
+    private static final class Token {
+        private final String text;
+        private final boolean isQuoted;
+
+        Token(String text, boolean isQuoted) {
+            this.text = text;
+            this.isQuoted = isQuoted;
+        }
+
+        boolean is(String keyword) {
+            return !isQuoted && text.equalsIgnoreCase(keyword);
+        }
+    }
+
+    /**
+     * Splits query text into words and parentheses. Double quotes group words
+     * containing spaces, e.g. title:"weekly report".
+     */
+    private static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean isQuoted = false;
+        boolean inQuotes = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                // Only a quote at the start of a word makes the whole word literal
+                isQuoted |= !inQuotes && current.length() == 0;
+                inQuotes = !inQuotes;
+            } else if (inQuotes) {
+                current.append(c);
+            } else if (Character.isWhitespace(c) || c == '(' || c == ')') {
+                if (current.length() > 0 || isQuoted) {
+                    tokens.add(new Token(current.toString(), isQuoted));
+                    current.setLength(0);
+                    isQuoted = false;
+                }
+                if (c == '(' || c == ')') {
+                    tokens.add(new Token(String.valueOf(c), false));
+                }
+            } else {
+                current.append(c);
+            }
+        }
+        if (inQuotes) {
+            throw new IllegalArgumentException("Unclosed quote in query");
+        }
+        if (current.length() > 0 || isQuoted) {
+            tokens.add(new Token(current.toString(), isQuoted));
+        }
+        return tokens;
+    }
+
+    /**
+     * Reads a token list into a Query, by recursive descent.
+     */
+    private static final class QueryReader {
+        private final List<Token> tokens;
+        private int pos;
+        private Order order = Order.POSITION;
+        private int limit = Integer.MAX_VALUE;
+
+        QueryReader(List<Token> tokens) {
+            this.tokens = tokens;
+        }
+
+        Query read() {
+            Node root = null;
+            if (pos < tokens.size()) {
+                root = readOr();
+            }
+            if (pos < tokens.size()) {
+                throw new IllegalArgumentException("Unexpected '" + tokens.get(pos).text + "' in query");
+            }
+            return new Query(root, order, limit);
+        }
+
+        private Node readOr() {
+            List<Node> alternatives = new ArrayList<>();
+            alternatives.add(readAnd());
+            while (pos < tokens.size() && tokens.get(pos).is("or")) {
+                pos++;
+                alternatives.add(readAnd());
+            }
+            if (alternatives.size() == 1) {
+                return alternatives.get(0);
+            }
+            for (Node alternative : alternatives) {
+                requireTerm(alternative);
+            }
+            return new Or(alternatives);
+        }
+
+        private Node readAnd() {
+            List<Node> terms = new ArrayList<>();
+            while (pos < tokens.size() && !tokens.get(pos).is("or") && !tokens.get(pos).is(")")) {
+                Node node = readUnary();
+                if (node != null) {
+                    terms.add(node);
+                }
+            }
+            if (terms.isEmpty()) {
+                return null; // only options were given, which matches every task
+            }
+            return terms.size() == 1 ? terms.get(0) : new And(terms);
+        }
+
+        /**
+         * Reads one possibly negated term or group, or consumes an option and returns null.
+         */
+        private Node readUnary() {
+            Token token = tokens.get(pos++);
+            if (token.is("not")) {
+                if (pos >= tokens.size()) {
+                    throw new IllegalArgumentException("'not' must be followed by a search term");
+                }
+                return new Not(requireTerm(readUnary()));
+            }
+            if (token.is("(")) {
+                Node inner = readOr();
+                if (pos >= tokens.size() || !tokens.get(pos).is(")")) {
+                    throw new IllegalArgumentException("Missing ')' in query");
+                }
+                pos++;
+                return requireTerm(inner);
+            }
+            if (!token.isQuoted && token.text.length() > 1 && token.text.startsWith("-")) {
+                return new Not(requireTerm(readTerm(token.text.substring(1), false)));
+            }
+            return readTerm(token.text, token.isQuoted);
+        }
+
+        private static Node requireTerm(Node node) {
+            if (node == null) {
+                throw new IllegalArgumentException("Expected a search term in query");
+            }
+            return node;
+        }
+
+        private Node readTerm(String text, boolean isQuoted) {
+            int colon = isQuoted ? -1 : text.indexOf(':');
+            if (colon < 0) {
+                return new TitleTerm(text);
+            }
+            String key = text.substring(0, colon).toLowerCase();
+            String value = text.substring(colon + 1);
+            if (value.isEmpty()) {
+                throw new IllegalArgumentException("Missing value for '" + key + ":' in query");
+            }
+            switch (key) {
+            case "type":
+                return new TypeTerm(parseType(value));
+            case "done":
+                return new DoneTerm(parseBoolean(value));
+            case "before":
+                return new DateTerm(true, Task.parseDateFlexible(value));
+            case "after":
+                return new DateTerm(false, Task.parseDateFlexible(value));
+            case "title":
+                return new TitleTerm(value);
+            case "sort":
+                order = parseOrder(value);
+                return null;
+            case "limit":
+                limit = parseLimit(value);
+                return null;
+            default:
+                throw new IllegalArgumentException("Unknown query term '" + key
+                        + ":'. Try type, done, before, after, title, sort or limit");
+            }
+        }
+
+        private static String parseType(String value) {
+            switch (value.toLowerCase()) {
+            case "t":
+            case "todo":
+                return "T";
+            case "d":
+            case "deadline":
+                return "D";
+            case "e":
+            case "event":
+                return "E";
+            case "r":
+            case "recurring":
+                return "R";
+            default:
+                throw new IllegalArgumentException("Unknown task type: " + value + ". Use T, D, E or R");
+            }
+        }
+
+        private static boolean parseBoolean(String value) {
+            switch (value.toLowerCase()) {
+            case "true":
+            case "yes":
+                return true;
+            case "false":
+            case "no":
+                return false;
+            default:
+                throw new IllegalArgumentException("done must be true or false, got: " + value);
+            }
+        }
+
+        private static Order parseOrder(String value) {
+            try {
+                return Order.valueOf(value.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("sort must be position, date or title, got: " + value);
+            }
+        }
+
+        private static int parseLimit(String value) {
+            try {
+                int limit = Integer.parseInt(value);
+                if (limit > 0) {
+                    return limit;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            throw new IllegalArgumentException("limit must be a positive number, got: " + value);
+        }
+    }
+}
@@ -6,7 +6,9 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Represents a recurring task with title, completion status, and recurrence pattern.
@@ -18,6 +20,7 @@ public class RecurringTask extends Task {
     protected RecurrencePattern pattern;
     protected LocalDate nextOccurrence;
     protected int interval; // e.g., every 2 weeks, every 3 months
+    private int missedOccurrences; // occurrences skipped by the last catch-up, not persisted
     
     /**
      * DateTimeFormatter for formatting LocalDateTime objects for UI display.
@@ -120,12 +123,17 @@ public class RecurringTask extends Task {
     }
     
     @Override
-    public String toString() {
+    String details() {
         String intervalText = interval == 1 ? "" : " (every " + interval + " " + pattern.getDisplayName() + "s)";
-        return "[R]" + super.toString() + " (from: " + UI.format(startTime) + " to: " + UI.format(endTime) + 
+        return "(from: " + UI.format(startTime) + " to: " + UI.format(endTime) + 
                ", " + pattern.getDisplayName() + intervalText + ", next: " + nextOccurrence + ")";
     }
     
+    @Override
+    public String toString() {
+        return "[R]" + super.toString() + " " + details();
+    }
+    
     /**
      * Gets the next occurrence date of this recurring task.
      * 
@@ -155,6 +163,109 @@ public class RecurringTask extends Task {
         }
     }
     
+    /**
+     * Advances the next occurrence to the first scheduled date on or after the given date.
+     * 
+     * The number of skipped occurrences is computed arithmetically from the distance
+     * between the dates, so a task left stale for years costs the same as one left
+     * stale for a day.
+     * 
+     * @param today The date to catch up to
+     * @return The number of occurrences that were missed (0 if already up to date)
+     */
+    public int catchUpTo(LocalDate today) {
+        assert today != null : "Date cannot be null";
+        if (!nextOccurrence.isBefore(today)) {
+            missedOccurrences = 0;
+            return 0;
+        }
+        
+        long steps = stepsToReach(today);
+        nextOccurrence = occurrenceAfter(steps);
+        missedOccurrences = (int) Math.min(steps, Integer.MAX_VALUE);
+        return missedOccurrences;
+    }
+    
+    /**
+     * Gets the number of occurrences skipped by the most recent catch-up.
+     * 
+     * @return The number of missed occurrences
+     */
+    public int getMissedOccurrences() {
+        return missedOccurrences;
+    }
+    
+    /**
+     * Returns the occurrence dates of this task between the given dates (inclusive), in order.
+     * 
+     * Dates are generated lazily starting from the next occurrence, so only the
+     * occurrences inside the range are ever computed.
+     * 
+     * @param from The first date of the range
+     * @param to The last date of the range
+     * @return An iterator over the occurrence dates within the range
+     */
+    public Iterator<LocalDate> occurrencesBetween(LocalDate from, LocalDate to) {
+        assert from != null && to != null : "Range dates cannot be null";
+        final long firstStep = nextOccurrence.isBefore(from) ? stepsToReach(from) : 0;
+        return new Iterator<LocalDate>() {
+            private long step = firstStep;
+            private LocalDate next = occurrenceAfter(firstStep);
+            
+            @Override
+            public boolean hasNext() {
+                return !next.isAfter(to);
+            }
+            
+            @Override
+            public LocalDate next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                LocalDate current = next;
+                step++;
+                next = occurrenceAfter(step);
+                return current;
+            }
+        };
+    }
+    
+    /**
+     * Returns the smallest number of steps from the next occurrence that lands on or after the target.
+     */
+    private long stepsToReach(LocalDate target) {
+        ChronoUnit unit = unitOf(pattern);
+        long distance = unit.between(nextOccurrence, target);
+        long steps = (distance + interval - 1) / interval; // ceiling division
+        if (occurrenceAfter(steps).isBefore(target)) {
+            // Month/year arithmetic can land short when the day-of-month is clamped
+            steps++;
+        }
+        return steps;
+    }
+    
+    /**
+     * Returns the date that is the given number of steps after the next occurrence.
+     */
+    private LocalDate occurrenceAfter(long steps) {
+        return nextOccurrence.plus(steps * interval, unitOf(pattern));
+    }
+    
+    private static ChronoUnit unitOf(RecurrencePattern pattern) {
+        switch (pattern) {
+            case DAILY:
+                return ChronoUnit.DAYS;
+            case WEEKLY:
+                return ChronoUnit.WEEKS;
+            case MONTHLY:
+                return ChronoUnit.MONTHS;
+            case YEARLY:
+                return ChronoUnit.YEARS;
+            default:
+                throw new IllegalArgumentException("Unknown recurrence pattern: " + pattern);
+        }
+    }
+    
     /**
      * Checks if this recurring task should occur on the given date.
      * 
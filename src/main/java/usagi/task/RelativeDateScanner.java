@@ -0,0 +1,235 @@
+package usagi.task;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resolves relative date phrases against a given day.
+ *
+ * Supported phrases are {@code today}, {@code tomorrow} (or {@code tmr}),
+ * {@code yesterday}, a weekday or {@code next <weekday>} (the first such day after
+ * today), {@code next week|month|year}, {@code in N days|weeks|months|years} and
+ * {@code end of week|month|year}. For date-times, a phrase may be followed by
+ * an {@code HHmm} time; otherwise it resolves to the start of the day.
+ *
+ * Each word is looked up once in a keyword table, and an unrecognised phrase
+ * yields null instead of an exception.
+ */
+final class RelativeDateScanner {
+    private enum Word {
+        TODAY, TOMORROW, YESTERDAY, NEXT, IN, END, OF, DAY, WEEK, MONTH, YEAR
+    }
+
+    private static final int MAX_WORDS = 4;
+    private static final int MAX_AMOUNT_DIGITS = 4;
+    private static final Map<String, Word> WORDS = new HashMap<>();
+    private static final Map<String, DayOfWeek> WEEKDAYS = new HashMap<>();
+
+    static {
+        put(Word.TODAY, "today", "tdy");
+        put(Word.TOMORROW, "tomorrow", "tmr", "tmrw");
+        put(Word.YESTERDAY, "yesterday");
+        put(Word.NEXT, "next");
+        put(Word.IN, "in");
+        put(Word.END, "end");
+        put(Word.OF, "of");
+        put(Word.DAY, "day", "days");
+        put(Word.WEEK, "week", "weeks");
+        put(Word.MONTH, "month", "months");
+        put(Word.YEAR, "year", "years");
+        for (DayOfWeek day : DayOfWeek.values()) {
+            String name = day.name().toLowerCase(Locale.ROOT);
+            WEEKDAYS.put(name, day);
+            WEEKDAYS.put(name.substring(0, 3), day);
+        }
+        WEEKDAYS.put("tues", DayOfWeek.TUESDAY);
+        WEEKDAYS.put("thur", DayOfWeek.THURSDAY);
+        WEEKDAYS.put("thurs", DayOfWeek.THURSDAY);
+    }
+
+    private RelativeDateScanner() {
+    }
+
+    private static void put(Word word, String... spellings) {
+        for (String spelling : spellings) {
+            WORDS.put(spelling, word);
+        }
+    }
+
+    /**
+     * Resolves a relative date phrase.
+     *
+     * @param s The phrase
+     * @param today The day the phrase is relative to
+     * @return The date, or null if the input is not a supported phrase
+     */
+    static LocalDate scanDate(String s, LocalDate today) {
+        String[] words = words(s);
+        return words == null ? null : resolve(words, words.length, today);
+    }
+
+    /**
+     * Resolves a relative date phrase, optionally followed by an {@code HHmm} time.
+     *
+     * @param s The phrase
+     * @param today The day the phrase is relative to
+     * @return The date-time, or null if the input is not a supported phrase
+     */
+    static LocalDateTime scanDateTime(String s, LocalDate today) {
+        String[] words = words(s);
+        if (words == null) {
+            return null;
+        }
+        int n = words.length;
+        int time = n > 1 ? compactTime(words[n - 1]) : -1;
+        LocalDate date = resolve(words, time < 0 ? n : n - 1, today);
+        if (date == null) {
+            return null;
+        }
+        return time < 0 ? date.atStartOfDay() : date.atTime(time / 100, time % 100);
+    }
+
+    /**
+     * Resolves the first n words as a date phrase.
+     */
+    private static LocalDate resolve(String[] words, int n, LocalDate today) {
+        Word first = WORDS.get(words[0]);
+        if (n == 1) {
+            DayOfWeek weekday = WEEKDAYS.get(words[0]);
+            if (weekday != null) {
+                return today.with(TemporalAdjusters.next(weekday));
+            }
+            if (first == Word.TODAY) {
+                return today;
+            } else if (first == Word.TOMORROW) {
+                return today.plusDays(1);
+            } else if (first == Word.YESTERDAY) {
+                return today.minusDays(1);
+            }
+            return null;
+        }
+        if (n == 2 && first == Word.NEXT) {
+            DayOfWeek weekday = WEEKDAYS.get(words[1]);
+            if (weekday != null) {
+                return today.with(TemporalAdjusters.next(weekday));
+            }
+            return plus(today, 1, WORDS.get(words[1]));
+        }
+        if (n == 3 && first == Word.IN) {
+            int amount = amount(words[1]);
+            return amount < 0 ? null : plus(today, amount, WORDS.get(words[2]));
+        }
+        if (n == 3 && first == Word.END && WORDS.get(words[1]) == Word.OF) {
+            return endOf(today, WORDS.get(words[2]));
+        }
+        return null;
+    }
+
+    private static LocalDate plus(LocalDate today, int amount, Word unit) {
+        if (unit == null) {
+            return null;
+        }
+        switch (unit) {
+        case DAY:
+            return today.plusDays(amount);
+        case WEEK:
+            return today.plusWeeks(amount);
+        case MONTH:
+            return today.plusMonths(amount);
+        case YEAR:
+            return today.plusYears(amount);
+        default:
+            return null;
+        }
+    }
+
+    private static LocalDate endOf(LocalDate today, Word unit) {
+        if (unit == null) {
+            return null;
+        }
+        switch (unit) {
+        case WEEK:
+            return today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+        case MONTH:
+            return today.with(TemporalAdjusters.lastDayOfMonth());
+        case YEAR:
+            return today.with(TemporalAdjusters.lastDayOfYear());
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Splits the input into lower-case words.
+     *
+     * @return The words, or null if there are none or too many for any phrase
+     */
+    private static String[] words(String s) {
+        String[] words = new String[MAX_WORDS];
+        int count = 0;
+        int i = 0;
+        int n = s.length();
+        while (i < n) {
+            while (i < n && Character.isWhitespace(s.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < n && !Character.isWhitespace(s.charAt(i))) {
+                i++;
+            }
+            if (start < i) {
+                if (count == MAX_WORDS) {
+                    return null;
+                }
+                words[count++] = s.substring(start, i).toLowerCase(Locale.ROOT);
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+        String[] result = new String[count];
+        System.arraycopy(words, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Reads a positive amount of at most a few digits.
+     *
+     * @return The amount, or -1 if the word is not one
+     */
+    private static int amount(String word) {
+        if (word.isEmpty() || word.length() > MAX_AMOUNT_DIGITS) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Reads an {@code HHmm} time.
+     *
+     * @return The time as hours * 100 + minutes, or -1 if the word is not a valid time
+     */
+    private static int compactTime(String word) {
+        if (word.length() != 4) {
+            return -1;
+        }
+        int value = amount(word);
+        if (value < 0 || value / 100 > 23 || value % 100 > 59) {
+            return -1;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,95 @@
+package usagi.task;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Represents a named query whose matching tasks are kept up to date as the
+ * task list changes.
+ *
+ * The task list offers each added or changed task to every saved search and
+ * removes deleted tasks from them, so reading the results costs time in the
+ * number of matches rather than the size of the list.
+ */
+public class SavedSearch {
+    private final String name;
+    private final String queryText;
+    private final Query query;
+    // Keyed by each task's sequence in the task list, which follows list order
+    private final TreeMap<Long, Task> matches = new TreeMap<>();
+
+    SavedSearch(String name, String queryText, Query query) {
+        this.name = name;
+        this.queryText = queryText;
+        this.query = query;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the query as the user wrote it.
+     *
+     * @return The query text
+     */
+    public String getQueryText() {
+        return queryText;
+    }
+
+    /**
+     * Returns the number of tasks currently matching the search, before any limit.
+     *
+     * @return The number of matches
+     */
+    public int size() {
+        return matches.size();
+    }
+
+    /**
+     * Returns the matching tasks, in the order and up to the limit given by the query.
+     *
+     * @return The matching tasks
+     */
+    public List<Task> results() {
+        List<Task> results = new ArrayList<>(matches.values());
+        if (query.getOrder() == Query.Order.DATE) {
+            results.sort(Comparator.comparing(Query::dateOf, Comparator.nullsLast(Comparator.naturalOrder())));
+        } else if (query.getOrder() == Query.Order.TITLE) {
+            results.sort(Comparator.comparing(task -> task.getTitle().toLowerCase()));
+        }
+        return results.size() > query.getLimit() ? results.subList(0, query.getLimit()) : results;
+    }
+
+    /**
+     * Re-tests a task that was added or changed, adding or removing it as needed.
+     *
+     * @param sequence The sequence of the task, which follows list order
+     * @param task The task
+     */
+    void offer(long sequence, Task task) {
+        if (query.matches(task)) {
+            matches.put(sequence, task);
+        } else {
+            matches.remove(sequence);
+        }
+    }
+
+    /**
+     * Removes every match, before the task list offers all of its tasks again.
+     */
+    void clear() {
+        matches.clear();
+    }
+
+    /**
+     * Removes a deleted task.
+     *
+     * @param sequence The sequence of the task, which follows list order
+     */
+    void remove(long sequence) {
+        matches.remove(sequence);
+    }
+}
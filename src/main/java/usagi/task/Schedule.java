@@ -0,0 +1,283 @@
+package usagi.task;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Provides calendar-wide queries over the time slots occupied by tasks.
+ *
+ * Events contribute a single slot and recurring tasks contribute one slot per
+ * occurrence. Recurring occurrences are expanded lazily over the requested window
+ * and merged with the other slots in start order, so a sweep over the window costs
+ * O(n log k) for n slots coming from k tasks.
+ */
+public class Schedule {
+    private static final Comparator<TimeSlot> BY_START = Comparator.comparing(TimeSlot::getStart);
+    private static final Comparator<TimeSlot> BY_END = Comparator.comparing(TimeSlot::getEnd);
+
+    /**
+     * Represents two time slots that overlap.
+     */
+    public static class Conflict {
+        private final TimeSlot first;
+        private final TimeSlot second;
+
+        Conflict(TimeSlot first, TimeSlot second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        /** Returns the slot that starts earlier. */
+        public TimeSlot getFirst() {
+            return first;
+        }
+
+        /** Returns the slot that starts later. */
+        public TimeSlot getSecond() {
+            return second;
+        }
+    }
+
+    private Schedule() {
+    }
+
+    /**
+     * Finds all pairs of overlapping slots that intersect the given window.
+     *
+     * Slots of the same task never conflict with each other. Slots that merely touch
+     * (one ends exactly when the other starts) are not considered overlapping.
+     *
+     * @param tasks The tasks to check
+     * @param from The start of the window
+     * @param to The end of the window
+     * @return The conflicts found, ordered by the start of the later slot
+     */
+    public static List<Conflict> findConflicts(List<Task> tasks, LocalDateTime from, LocalDateTime to) {
+        assert tasks != null : "Task list cannot be null";
+        List<Conflict> conflicts = new ArrayList<>();
+        PriorityQueue<TimeSlot> active = new PriorityQueue<>(BY_END);
+
+        Iterator<TimeSlot> slots = slotsBetween(tasks, from, to);
+        while (slots.hasNext()) {
+            TimeSlot slot = slots.next();
+            while (!active.isEmpty() && !active.peek().getEnd().isAfter(slot.getStart())) {
+                active.poll();
+            }
+            for (TimeSlot other : active) {
+                if (other.getTask() != slot.getTask()) {
+                    conflicts.add(new Conflict(other, slot));
+                }
+            }
+            active.add(slot);
+        }
+        return conflicts;
+    }
+
+    /**
+     * Finds the slots of other tasks that overlap any slot of the given task within the window.
+     *
+     * @param tasks The tasks to check, which may include the given task
+     * @param task The task to check against the others
+     * @param from The start of the window
+     * @param to The end of the window
+     * @return The overlapping slots belonging to other tasks, in start order
+     */
+    public static List<TimeSlot> conflictsWith(List<Task> tasks, Task task, LocalDateTime from, LocalDateTime to) {
+        assert task != null : "Task cannot be null";
+        // A slot can clash with the task more than once; keep it once, in the order found
+        Set<TimeSlot> clashes = new LinkedHashSet<>();
+        for (Conflict conflict : findConflicts(tasks, from, to)) {
+            TimeSlot other;
+            if (conflict.getFirst().getTask() == task) {
+                other = conflict.getSecond();
+            } else if (conflict.getSecond().getTask() == task) {
+                other = conflict.getFirst();
+            } else {
+                continue;
+            }
+            clashes.add(other);
+        }
+        List<TimeSlot> sorted = new ArrayList<>(clashes);
+        sorted.sort(BY_START);
+        return sorted;
+    }
+
+    /**
+     * Finds free periods of at least the given length within the window.
+     *
+     * Busy slots are consumed in start order and coalesced on the fly by tracking the
+     * latest end seen so far, so the search is linear in the number of busy slots
+     * within the window and stops as soon as enough free periods are found.
+     *
+     * @param tasks The tasks whose slots count as busy
+     * @param length The minimum length of a free period
+     * @param from The start of the window
+     * @param to The end of the window
+     * @param limit The maximum number of free periods to return
+     * @return The free periods in chronological order, each as a slot without a task
+     */
+    public static List<TimeSlot> findFreeSlots(List<Task> tasks, Duration length,
+                                               LocalDateTime from, LocalDateTime to, int limit) {
+        assert length != null && !length.isNegative() && !length.isZero() : "Length must be positive";
+        assert limit > 0 : "Limit must be positive";
+        List<TimeSlot> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+
+        Iterator<TimeSlot> busy = slotsBetween(tasks, from, to);
+        while (busy.hasNext() && free.size() < limit) {
+            TimeSlot slot = busy.next();
+            if (slot.getStart().isAfter(cursor)) {
+                addIfLongEnough(free, cursor, slot.getStart(), length);
+            }
+            if (slot.getEnd().isAfter(cursor)) {
+                cursor = slot.getEnd();
+            }
+        }
+        if (free.size() < limit && cursor.isBefore(to)) {
+            addIfLongEnough(free, cursor, to, length);
+        }
+        return free;
+    }
+
+    private static void addIfLongEnough(List<TimeSlot> free, LocalDateTime start, LocalDateTime end,
+                                        Duration length) {
+        if (!start.plus(length).isAfter(end)) {
+            free.add(new TimeSlot(null, start, end));
+        }
+    }
+
+    /**
+     * Returns every slot intersecting the given window, in start order.
+     *
+     * Each task's slots are generated lazily and merged through a priority queue,
+     * so recurring tasks are only expanded as far as the sweep has progressed.
+     *
+     * @param tasks The tasks whose slots to return
+     * @param from The start of the window
+     * @param to The end of the window
+     * @return An iterator over the slots in start order
+     */
+    public static Iterator<TimeSlot> slotsBetween(List<Task> tasks, LocalDateTime from, LocalDateTime to) {
+        assert from != null && to != null : "Window boundaries cannot be null";
+        PriorityQueue<PeekingIterator> sources =
+                new PriorityQueue<>(Comparator.comparing((PeekingIterator source) -> source.peek().getStart()));
+        for (Task task : tasks) {
+            Iterator<TimeSlot> slots = slotsOf(task, from, to);
+            if (slots.hasNext()) {
+                sources.add(new PeekingIterator(slots));
+            }
+        }
+
+        return new Iterator<TimeSlot>() {
+            @Override
+            public boolean hasNext() {
+                return !sources.isEmpty();
+            }
+
+            @Override
+            public TimeSlot next() {
+                PeekingIterator source = sources.poll();
+                if (source == null) {
+                    throw new NoSuchElementException();
+                }
+                TimeSlot slot = source.next();
+                if (source.hasNext()) {
+                    sources.add(source);
+                }
+                return slot;
+            }
+        };
+    }
+
+    /**
+     * Returns the slots of a single task that intersect the given window, in start order.
+     */
+    private static Iterator<TimeSlot> slotsOf(Task task, LocalDateTime from, LocalDateTime to) {
+        if (task instanceof Event) {
+            Event event = (Event) task;
+            if (intersects(event.from, event.to, from, to)) {
+                return Collections.singletonList(new TimeSlot(task, event.from, event.to)).iterator();
+            }
+        } else if (task instanceof RecurringTask) {
+            RecurringTask recurring = (RecurringTask) task;
+            // Start a day early so occurrences running past midnight into the window are included
+            Iterator<LocalDate> dates = recurring.occurrencesBetween(
+                    from.toLocalDate().minusDays(1), to.toLocalDate());
+            return new Iterator<TimeSlot>() {
+                private TimeSlot next = advance();
+
+                private TimeSlot advance() {
+                    while (dates.hasNext()) {
+                        LocalDate date = dates.next();
+                        LocalDateTime start = recurring.getStartTimeFor(date);
+                        LocalDateTime end = recurring.getEndTimeFor(date);
+                        if (end.isBefore(start)) {
+                            end = end.plusDays(1);
+                        }
+                        if (intersects(start, end, from, to)) {
+                            return new TimeSlot(task, start, end);
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public TimeSlot next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    TimeSlot current = next;
+                    next = advance();
+                    return current;
+                }
+            };
+        }
+        return Collections.emptyIterator();
+    }
+
+    private static boolean intersects(LocalDateTime start, LocalDateTime end, LocalDateTime from, LocalDateTime to) {
+        return start.isBefore(to) && end.isAfter(from);
+    }
+
+    /**
+     * Wraps an iterator so that its next element can be inspected without consuming it.
+     */
+    private static class PeekingIterator {
+        private final Iterator<TimeSlot> delegate;
+        private TimeSlot head;
+
+        PeekingIterator(Iterator<TimeSlot> delegate) {
+            this.delegate = delegate;
+            this.head = delegate.next();
+        }
+
+        TimeSlot peek() {
+            return head;
+        }
+
+        boolean hasNext() {
+            return head != null;
+        }
+
+        TimeSlot next() {
+            TimeSlot current = head;
+            head = delegate.hasNext() ? delegate.next() : null;
+            return current;
+        }
+    }
+}
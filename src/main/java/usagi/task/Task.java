@@ -33,6 +33,15 @@ public abstract class Task {
      */
     abstract String[] extra();
 
+    /**
+     * Returns type-specific details shown after the title, such as "(by: ...)".
+     * 
+     * @return The details, or an empty string if the task type has none
+     */
+    String details() {
+        return "";
+    }
+
     /**
      * Constructs a new Task with the specified title and completion status.
      * 
@@ -46,6 +55,24 @@ public abstract class Task {
         this.isDone = done;
     }
 
+    /**
+     * Returns the title of the task.
+     * 
+     * @return The title/description of the task
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Returns whether the task is completed.
+     * 
+     * @return true if the task is done
+     */
+    public boolean isDone() {
+        return isDone;
+    }
+
     /**
      * Marks the task as completed.
      */
@@ -126,6 +153,15 @@ public abstract class Task {
         }
     }
 
+    /**
+     * Returns an immutable snapshot of this task for display.
+     * 
+     * @return A view of the task's current type, status, title and details
+     */
+    public TaskView toView() {
+        return new TaskView(type(), isDone, title, details());
+    }
+
     @Override
     public String toString() {
         if (isDone) {
@@ -138,13 +174,29 @@ public abstract class Task {
     /**
      * Parses a date string in various formats and returns a LocalDate.
      * 
-     * Supports ISO format (yyyy-MM-dd), day/month/year, and month/day/year formats.
+     * Supports ISO format (yyyy-MM-dd), day/month/year, and month/day/year formats,
+     * as well as relative phrases such as "tomorrow", "next fri", "in 3 days" and
+     * "end of month", which are resolved against {@link DateAnchor#today()}.
+     * The input is classified in a single pass; the ISO formatter is only consulted
+     * for unusual shapes the scanner does not recognise.
      *
      * @param raw The date string to parse
      * @return A LocalDate object representing the parsed date
      * @throws IllegalArgumentException If the date string cannot be parsed
      */
     public static LocalDate parseDateFlexible(String raw) {
+        return parseDateFlexible(raw, null);
+    }
+
+    /**
+     * Parses a date string, resolving relative phrases against the given day.
+     *
+     * @param raw The date string to parse
+     * @param today The day relative phrases are resolved against, or null for {@link DateAnchor#today()}
+     * @return A LocalDate object representing the parsed date
+     * @throws IllegalArgumentException If the date string cannot be parsed
+     */
+    public static LocalDate parseDateFlexible(String raw, LocalDate today) {
         if (raw == null) {
             throw new IllegalArgumentException("Date string cannot be null");
         }
@@ -152,12 +204,17 @@ public abstract class Task {
             throw new IllegalArgumentException("Date string cannot be empty");
         }
         
-        try { return LocalDate.parse(raw); } catch (DateTimeParseException ignore) {}
-
-        for (String pattern : new String[]{"d/M/yyyy", "M/d/yyyy"}) {
-            try {
-                return LocalDate.parse(raw, DateTimeFormatter.ofPattern(pattern));
-            } catch (DateTimeParseException ignore) {}
+        LocalDate scanned = DateTimeScanner.scanDate(raw);
+        if (scanned != null) {
+            return scanned;
+        }
+        if (mayBeRelative(raw)) {
+            LocalDate relative = RelativeDateScanner.scanDate(raw, today != null ? today : DateAnchor.today());
+            if (relative != null) {
+                return relative;
+            }
+        } else if (mayNeedFallback(raw)) {
+            try { return LocalDate.parse(raw, DateTimeFormatter.ISO_LOCAL_DATE); } catch (DateTimeParseException ignore) {}
         }
         throw new IllegalArgumentException("Cannot parse date: " + raw);
     }
@@ -166,13 +223,28 @@ public abstract class Task {
      * Parses a date-time string in various formats and returns a LocalDateTime.
      * 
      * Supports ISO format, date with time (HHmm), and falls back to start of day
-     * if only a date is provided.
+     * if only a date is provided. Relative phrases such as "next fri" or
+     * "tomorrow 1400" are resolved against {@link DateAnchor#today()}. The input is
+     * classified in a single pass; the ISO formatters are only consulted for unusual
+     * shapes the scanner does not recognise.
      *
      * @param raw The date-time string to parse
      * @return A LocalDateTime object representing the parsed date and time
      * @throws IllegalArgumentException If the date-time string cannot be parsed
      */
     public static LocalDateTime parseDateTimeFlexible(String raw) {
+        return parseDateTimeFlexible(raw, null);
+    }
+
+    /**
+     * Parses a date-time string, resolving relative phrases against the given day.
+     *
+     * @param raw The date-time string to parse
+     * @param today The day relative phrases are resolved against, or null for {@link DateAnchor#today()}
+     * @return A LocalDateTime object representing the parsed date and time
+     * @throws IllegalArgumentException If the date-time string cannot be parsed
+     */
+    public static LocalDateTime parseDateTimeFlexible(String raw, LocalDate today) {
         if (raw == null) {
             throw new IllegalArgumentException("DateTime string cannot be null");
         }
@@ -180,19 +252,39 @@ public abstract class Task {
             throw new IllegalArgumentException("DateTime string cannot be empty");
         }
         
-        try { return LocalDateTime.parse(raw); } catch (DateTimeParseException ignore) {}
-
-        for (String pattern : new String[]{"yyyy-MM-dd HHmm", "d/M/yyyy HHmm", "M/d/yyyy HHmm"}) {
-            try {
-                return LocalDateTime.parse(raw, DateTimeFormatter.ofPattern(pattern));
-            } catch (DateTimeParseException ignore) {}
+        LocalDateTime scanned = DateTimeScanner.scanDateTime(raw);
+        if (scanned != null) {
+            return scanned;
         }
-
-        try {
-            return parseDateFlexible(raw).atStartOfDay();
-        } catch (RuntimeException e) {
-            throw new IllegalArgumentException("Cannot parse date-time: " + raw);
+        if (mayBeRelative(raw)) {
+            LocalDateTime relative = RelativeDateScanner.scanDateTime(raw, today != null ? today : DateAnchor.today());
+            if (relative != null) {
+                return relative;
+            }
+        } else if (mayNeedFallback(raw)) {
+            // Rare ISO variants the scanner does not handle, such as fractional seconds
+            try { return LocalDateTime.parse(raw, DateTimeFormatter.ISO_LOCAL_DATE_TIME); } catch (DateTimeParseException ignore) {}
+            try { return LocalDate.parse(raw, DateTimeFormatter.ISO_LOCAL_DATE).atStartOfDay(); } catch (DateTimeParseException ignore) {}
         }
+        throw new IllegalArgumentException("Cannot parse date-time: " + raw);
+    }
+
+    /**
+     * Checks whether an input rejected by the scanner could be a relative phrase,
+     * all of which start with a letter.
+     */
+    private static boolean mayBeRelative(String raw) {
+        return Character.isLetter(raw.charAt(0));
+    }
+
+    /**
+     * Checks whether an input rejected by the scanner could still be an ISO value.
+     * Anything not starting with a digit or sign cannot be, so the exception-throwing
+     * formatters are skipped entirely for it.
+     */
+    private static boolean mayNeedFallback(String raw) {
+        char c = raw.charAt(0);
+        return (c >= '0' && c <= '9') || c == '+' || c == '-';
     }
 
     /**
@@ -0,0 +1,143 @@
+package usagi.task;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds secondary indexes over a snapshot of a task list: positions by type,
+ * by completion status, and sorted by date.
+ *
+ * An index is built in one pass (plus a sort for dates) and never updated;
+ * TaskList discards it on any change and rebuilds it on the next query.
+ */
+final class TaskIndex {
+    private static final int[] NONE = new int[0];
+
+    private final int size;
+    private final Map<String, int[]> byType;
+    private final int[] done;
+    private final int[] notDone;
+    private final LocalDate[] dates; // ascending
+    private final int[] datePositions; // position of the task with dates[i]
+
+    private TaskIndex(int size, Map<String, int[]> byType, int[] done, int[] notDone,
+            LocalDate[] dates, int[] datePositions) {
+        this.size = size;
+        this.byType = byType;
+        this.done = done;
+        this.notDone = notDone;
+        this.dates = dates;
+        this.datePositions = datePositions;
+    }
+
+    /**
+     * Builds the indexes for the given tasks.
+     *
+     * @param tasks The tasks, in list order
+     * @return The indexes
+     */
+    static TaskIndex build(List<Task> tasks) {
+        int n = tasks.size();
+        Map<String, int[]> typeBuffers = new HashMap<>();
+        Map<String, Integer> typeCounts = new HashMap<>();
+        int[] done = new int[n];
+        int[] notDone = new int[n];
+        int doneCount = 0;
+        int notDoneCount = 0;
+        Integer[] dated = new Integer[n];
+        int datedCount = 0;
+
+        for (int i = 0; i < n; i++) {
+            Task task = tasks.get(i);
+            String type = task.type();
+            int count = typeCounts.getOrDefault(type, 0);
+            int[] buffer = typeBuffers.computeIfAbsent(type, t -> new int[n]);
+            buffer[count] = i;
+            typeCounts.put(type, count + 1);
+            if (task.isDone()) {
+                done[doneCount++] = i;
+            } else {
+                notDone[notDoneCount++] = i;
+            }
+            if (Query.dateOf(task) != null) {
+                dated[datedCount++] = i;
+            }
+        }
+
+        Map<String, int[]> byType = new HashMap<>();
+        for (Map.Entry<String, int[]> entry : typeBuffers.entrySet()) {
+            byType.put(entry.getKey(), Arrays.copyOf(entry.getValue(), typeCounts.get(entry.getKey())));
+        }
+
+        // A stable sort keeps positions ascending among tasks with the same date
+        Integer[] byDate = Arrays.copyOf(dated, datedCount);
+        Arrays.sort(byDate, Comparator.comparing(i -> Query.dateOf(tasks.get(i))));
+        LocalDate[] dates = new LocalDate[datedCount];
+        int[] datePositions = new int[datedCount];
+        for (int i = 0; i < datedCount; i++) {
+            datePositions[i] = byDate[i];
+            dates[i] = Query.dateOf(tasks.get(byDate[i]));
+        }
+
+        return new TaskIndex(n, byType, Arrays.copyOf(done, doneCount), Arrays.copyOf(notDone, notDoneCount),
+                dates, datePositions);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the ascending positions of tasks of the given type.
+     */
+    int[] ofType(String type) {
+        return byType.getOrDefault(type, NONE);
+    }
+
+    /**
+     * Returns the ascending positions of tasks with the given completion status.
+     */
+    int[] withDone(boolean isDone) {
+        return isDone ? done : notDone;
+    }
+
+    /**
+     * Returns the position in date order of the first task dated on or after the given date.
+     *
+     * @param date The date, or null for the start of the date order
+     */
+    int firstOnOrAfter(LocalDate date) {
+        if (date == null) {
+            return 0;
+        }
+        int lo = 0;
+        int hi = dates.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (dates[mid].isBefore(date)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the number of dated tasks, which is the end of the date order.
+     */
+    int datedCount() {
+        return dates.length;
+    }
+
+    /**
+     * Returns the position in the task list of the i-th task in date order.
+     */
+    int positionByDate(int i) {
+        return datePositions[i];
+    }
+}
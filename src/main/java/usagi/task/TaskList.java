@@ -3,7 +3,12 @@ package usagi.task;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 
 /**
  * Manages a collection of tasks with operations for adding, removing,
@@ -11,9 +16,21 @@ import java.util.List;
  * 
  * This class provides a centralized interface for task management,
  * including date-based filtering and basic CRUD operations.
+ * 
+ * The list also keeps its titles in a prefix trie, ranked by when each task was
+ * last added or changed, for completing titles as the user types them.
  */
 public class TaskList {
     private final List<Task> tasks;
+    private TaskIndex index; // built on the first query after a change, null until then
+    private final Map<String, SavedSearch> savedSearches = new LinkedHashMap<>();
+    // Increases with list position and never changes while a task stays in the list, unlike
+    // its position. Sequences are spaced out so that a task can be reinserted between two others.
+    private final Map<Task, Long> sequences = new IdentityHashMap<>();
+    private static final long SEQUENCE_GAP = 1L << 20;
+    private long lastSequence;
+    private final TitleTrie titles = new TitleTrie();
+    private long lastUse; // counts additions and changes, to rank titles by how recently they were used
 
     /**
      * Constructs an empty task list.
@@ -30,11 +47,23 @@ public class TaskList {
     public TaskList(List<Task> tasks) {
         assert tasks != null : "Task list cannot be null";
         this.tasks = new ArrayList<>(tasks);
+        for (Task task : this.tasks) {
+            sequences.put(task, nextSequence());
+            titles.add(task, ++lastUse);
+        }
+    }
+
+    private long nextSequence() {
+        lastSequence += SEQUENCE_GAP;
+        return lastSequence;
     }
 
     /**
      * Returns all tasks in the list.
      * 
+     * Changes should go through the methods of this class so that its indexes
+     * stay up to date; the returned list is meant for reading.
+     * 
      * @return A list containing all tasks
      */
     public List<Task> all() {
@@ -49,6 +78,100 @@ public class TaskList {
     public void add(Task task) {
         assert task != null : "Task cannot be null";
         tasks.add(task);
+        index = null;
+        long sequence = nextSequence();
+        sequences.put(task, sequence);
+        titles.add(task, ++lastUse);
+        for (SavedSearch search : savedSearches.values()) {
+            search.offer(sequence, task);
+        }
+    }
+
+    /**
+     * Inserts tasks so that they end up at the specified indexes (1-based), in a single pass.
+     * 
+     * This reverses {@link #deleteAll(List)}: inserting the deleted tasks at the indexes
+     * they were deleted from restores the list.
+     * 
+     * @param indicesOneBased The 1-based indexes the tasks will have, in increasing order
+     * @param inserted The tasks to insert, in the same order as the indexes
+     */
+    public void insertAll(List<Integer> indicesOneBased, List<Task> inserted) {
+        assert indicesOneBased.size() == inserted.size() : "Each task needs an index";
+        int newSize = tasks.size() + inserted.size();
+        int previous = 0;
+        for (int i : indicesOneBased) {
+            if (i <= previous || i > newSize) {
+                throw new IndexOutOfBoundsException("Invalid insertion index: " + i + ", size: " + newSize);
+            }
+            previous = i;
+        }
+        List<Task> merged = new ArrayList<>(newSize);
+        int next = 0;
+        for (int i = 0; i < inserted.size(); i++) {
+            while (merged.size() < indicesOneBased.get(i) - 1) {
+                merged.add(tasks.get(next++));
+            }
+            merged.add(inserted.get(i));
+        }
+        merged.addAll(tasks.subList(next, tasks.size()));
+        tasks.clear();
+        tasks.addAll(merged);
+        if (!inserted.isEmpty()) {
+            index = null;
+            assignSequences(indicesOneBased);
+            for (Task task : inserted) {
+                titles.add(task, ++lastUse);
+            }
+        }
+    }
+
+    /**
+     * Gives inserted tasks sequences between those of their neighbours, or renumbers
+     * the whole list if there is no room left between them.
+     */
+    private void assignSequences(List<Integer> indicesOneBased) {
+        int i = 0;
+        while (i < indicesOneBased.size()) {
+            int runStart = indicesOneBased.get(i) - 1;
+            int runEnd = runStart + 1;
+            i++;
+            while (i < indicesOneBased.size() && indicesOneBased.get(i) - 1 == runEnd) {
+                runEnd++;
+                i++;
+            }
+            long before = runStart == 0 ? 0 : sequences.get(tasks.get(runStart - 1));
+            long after = runEnd == tasks.size() ? lastSequence + SEQUENCE_GAP : sequences.get(tasks.get(runEnd));
+            long step = (after - before) / (runEnd - runStart + 1);
+            if (step == 0) {
+                renumber();
+                return;
+            }
+            for (int j = runStart; j < runEnd; j++) {
+                Task task = tasks.get(j);
+                long sequence = before + step * (j - runStart + 1);
+                sequences.put(task, sequence);
+                lastSequence = Math.max(lastSequence, sequence);
+                for (SavedSearch search : savedSearches.values()) {
+                    search.offer(sequence, task);
+                }
+            }
+        }
+    }
+
+    private void renumber() {
+        sequences.clear();
+        lastSequence = 0;
+        for (SavedSearch search : savedSearches.values()) {
+            search.clear();
+        }
+        for (Task task : tasks) {
+            long sequence = nextSequence();
+            sequences.put(task, sequence);
+            for (SavedSearch search : savedSearches.values()) {
+                search.offer(sequence, task);
+            }
+        }
     }
 
     /**
@@ -58,17 +181,169 @@ public class TaskList {
      * @return The deleted task
      */
     public Task delete(int indexOneBased) {
+        checkIndex(indexOneBased);
+        Task t = tasks.remove(indexOneBased - 1);
+        index = null;
+        forget(t);
+        return t;
+    }
+
+    /**
+     * Deletes the tasks at the specified indexes (1-based) in a single pass.
+     * 
+     * Either all indexes are valid and every task is deleted, or nothing changes.
+     * 
+     * @param indicesOneBased The 1-based indexes of the tasks to delete
+     * @return The deleted tasks, in list order
+     */
+    public List<Task> deleteAll(List<Integer> indicesOneBased) {
+        for (int i : indicesOneBased) {
+            checkIndex(i);
+        }
+        boolean[] isRemoved = new boolean[tasks.size()];
+        for (int i : indicesOneBased) {
+            isRemoved[i - 1] = true;
+        }
+        return compact(isRemoved);
+    }
+
+    /**
+     * Deletes every task that satisfies the condition in a single pass.
+     * 
+     * @param condition The condition tasks to delete satisfy
+     * @return The deleted tasks, in list order
+     */
+    public List<Task> deleteIf(Predicate<Task> condition) {
+        boolean[] isRemoved = new boolean[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            isRemoved[i] = condition.test(tasks.get(i));
+        }
+        return compact(isRemoved);
+    }
+
+    /**
+     * Removes the flagged tasks by shifting the kept ones down once, instead of
+     * shifting the rest of the list for every removal.
+     */
+    private List<Task> compact(boolean[] isRemoved) {
+        List<Task> removed = new ArrayList<>();
+        int kept = 0;
+        for (int i = 0; i < isRemoved.length; i++) {
+            Task task = tasks.get(i);
+            if (isRemoved[i]) {
+                removed.add(task);
+                forget(task);
+            } else {
+                tasks.set(kept++, task);
+            }
+        }
+        tasks.subList(kept, tasks.size()).clear();
+        if (!removed.isEmpty()) {
+            index = null;
+        }
+        return removed;
+    }
+
+    /**
+     * Removes a deleted task from the saved searches and the titles.
+     */
+    private void forget(Task task) {
+        titles.remove(task);
+        Long sequence = sequences.remove(task);
+        for (SavedSearch search : savedSearches.values()) {
+            search.remove(sequence);
+        }
+    }
+
+    private void checkIndex(int indexOneBased) {
         if (indexOneBased <= 0) {
             throw new IndexOutOfBoundsException("Index must be positive (1-based), got: " + indexOneBased);
         }
         if (indexOneBased > tasks.size()) {
             throw new IndexOutOfBoundsException("Index out of bounds, got: " + indexOneBased + ", size: " + tasks.size());
         }
-        Task t = tasks.get(indexOneBased - 1);
-        tasks.remove(t);
+    }
+
+    /**
+     * Marks the task at the specified index (1-based) as done.
+     * 
+     * @param indexOneBased The 1-based index of the task to mark
+     * @return The marked task
+     */
+    public Task mark(int indexOneBased) {
+        Task t = get(indexOneBased);
+        t.mark();
+        changed(t);
+        return t;
+    }
+
+    /**
+     * Marks the task at the specified index (1-based) as not done.
+     * 
+     * @param indexOneBased The 1-based index of the task to unmark
+     * @return The unmarked task
+     */
+    public Task unmark(int indexOneBased) {
+        Task t = get(indexOneBased);
+        t.unmark();
+        changed(t);
         return t;
     }
 
+    /**
+     * Marks the tasks at the specified indexes (1-based) as done.
+     * 
+     * Either all indexes are valid and every task is marked, or nothing changes.
+     * 
+     * @param indicesOneBased The 1-based indexes of the tasks to mark
+     * @return The marked tasks, in the order of the indexes
+     */
+    public List<Task> markAll(List<Integer> indicesOneBased) {
+        return setDone(indicesOneBased, true);
+    }
+
+    /**
+     * Marks the tasks at the specified indexes (1-based) as not done.
+     * 
+     * Either all indexes are valid and every task is unmarked, or nothing changes.
+     * 
+     * @param indicesOneBased The 1-based indexes of the tasks to unmark
+     * @return The unmarked tasks, in the order of the indexes
+     */
+    public List<Task> unmarkAll(List<Integer> indicesOneBased) {
+        return setDone(indicesOneBased, false);
+    }
+
+    private List<Task> setDone(List<Integer> indicesOneBased, boolean isDone) {
+        for (int i : indicesOneBased) {
+            checkIndex(i);
+        }
+        List<Task> changed = new ArrayList<>(indicesOneBased.size());
+        for (int i : indicesOneBased) {
+            Task t = tasks.get(i - 1);
+            if (isDone) {
+                t.mark();
+            } else {
+                t.unmark();
+            }
+            changed(t);
+            changed.add(t);
+        }
+        return changed;
+    }
+
+    /**
+     * Updates the indexes and saved searches after a task in the list changed.
+     */
+    private void changed(Task task) {
+        index = null;
+        titles.touch(task, ++lastUse);
+        long sequence = sequences.get(task);
+        for (SavedSearch search : savedSearches.values()) {
+            search.offer(sequence, task);
+        }
+    }
+
     /**
      * Gets a task at the specified index (1-based).
      * 
@@ -76,12 +351,7 @@ public class TaskList {
      * @return The task at the specified index
      */
     public Task get(int indexOneBased) {
-        if (indexOneBased <= 0) {
-            throw new IndexOutOfBoundsException("Index must be positive (1-based), got: " + indexOneBased);
-        }
-        if (indexOneBased > tasks.size()) {
-            throw new IndexOutOfBoundsException("Index out of bounds, got: " + indexOneBased + ", size: " + tasks.size());
-        }
+        checkIndex(indexOneBased);
         return tasks.get(indexOneBased - 1);
     }
 
@@ -117,23 +387,57 @@ public class TaskList {
      * @return A list of tasks occurring on the specified date
      */
     public List<Task> tasksOn(LocalDate date) {
+        return tasksOn(date, 0, Integer.MAX_VALUE).getTasks();
+    }
+
+    /**
+     * Returns up to the given number of tasks that occur on the specified date,
+     * scanning from the given position and stopping as soon as enough are found.
+     * 
+     * @param date The date to filter tasks by
+     * @param fromIndex The 0-based position to start scanning from
+     * @param limit The maximum number of tasks to return
+     * @return A page of matching tasks and the position to resume from
+     */
+    public Page tasksOn(LocalDate date, int fromIndex, int limit) {
         assert date != null : "Date cannot be null";
-        List<Task> matches = new ArrayList<>();
+        return scan(fromIndex, limit, task -> occursOn(task, date));
+    }
+
+    private static boolean occursOn(Task task, LocalDate date) {
+        if (task instanceof Deadline) {
+            LocalDate d = ((Deadline) task).by.toLocalDate();
+            return d.equals(date);
+        } else if (task instanceof Event) {
+            LocalDateTime f = ((Event) task).from;
+            LocalDateTime t = ((Event) task).to;
+            LocalDate start = f.toLocalDate();
+            LocalDate end = t.toLocalDate();
+            return (start.isBefore(date) || start.equals(date)) && (end.isAfter(date) || end.equals(date));
+        }
+        return false;
+    }
+
+    /**
+     * Advances every stale recurring task so its next occurrence is on or after the given date.
+     * 
+     * Intended to run once after loading, so that tasks left untouched while the
+     * application was closed show up again in upcoming views. The caller is
+     * responsible for persisting the list once if anything changed.
+     * 
+     * @param today The date to catch up to
+     * @return The number of recurring tasks that were advanced
+     */
+    public int catchUpRecurring(LocalDate today) {
+        assert today != null : "Date cannot be null";
+        int advanced = 0;
         for (Task task : tasks) {
-            if (task instanceof Deadline) {
-                LocalDate d = ((Deadline) task).by.toLocalDate();
-                if (d.equals(date)) matches.add(task);
-            } else if (task instanceof Event) {
-                LocalDateTime f = ((Event) task).from;
-                LocalDateTime t = ((Event) task).to;
-                LocalDate start = f.toLocalDate();
-                LocalDate end = t.toLocalDate();
-                if ((start.isBefore(date) || start.equals(date)) && (end.isAfter(date) || end.equals(date))) {
-                    matches.add(task);
-                }
+            if (task instanceof RecurringTask && ((RecurringTask) task).catchUpTo(today) > 0) {
+                advanced++;
+                changed(task);
             }
         }
-        return matches;
+        return advanced;
     }
 
     /**
@@ -146,17 +450,193 @@ public class TaskList {
      * @return A list of tasks containing the keyword in their description
      */
     public List<Task> find(String keyword) {
+        return find(keyword, 0, Integer.MAX_VALUE).getTasks();
+    }
+
+    /**
+     * Returns up to the given number of tasks containing the keyword in their description,
+     * scanning from the given position and stopping as soon as enough are found.
+     * 
+     * @param keyword The keyword to search for
+     * @param fromIndex The 0-based position to start scanning from
+     * @param limit The maximum number of tasks to return
+     * @return A page of matching tasks and the position to resume from
+     */
+    public Page find(String keyword, int fromIndex, int limit) {
         assert keyword != null : "Keyword cannot be null";
         assert !keyword.trim().isEmpty() : "Keyword cannot be empty";
-        List<Task> matches = new ArrayList<>();
         String lowerKeyword = keyword.toLowerCase();
+        return scan(fromIndex, limit, task -> task.title.toLowerCase().contains(lowerKeyword));
+    }
+
+    /**
+     * Returns tasks whose titles start with the given prefix, for completing a title.
+     * 
+     * Each title is returned once, through the task with that title that was added
+     * or changed most recently, and titles used more recently come first. The cost
+     * depends on the length of the prefix and the limit, not the size of the list.
+     * 
+     * @param prefix The start of the title, matched ignoring case
+     * @param limit The maximum number of titles to return
+     * @return The tasks, one per distinct title, most recently used first
+     */
+    public List<Task> completeTitle(String prefix, int limit) {
+        assert prefix != null : "Prefix cannot be null";
+        return titles.complete(prefix, limit);
+    }
+
+    /**
+     * Returns the 1-based index of a task in the list.
+     * 
+     * Found by binary search over the tasks' sequences, which follow list order.
+     * 
+     * @param task The task
+     * @return The 1-based index, or -1 if the task is not in the list
+     */
+    public int indexOf(Task task) {
+        Long sequence = sequences.get(task);
+        if (sequence == null) {
+            return -1;
+        }
+        int low = 0;
+        int high = tasks.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midSequence = sequences.get(tasks.get(mid));
+            if (midSequence < sequence) {
+                low = mid + 1;
+            } else if (midSequence > sequence) {
+                high = mid - 1;
+            } else {
+                return mid + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Runs a compiled query over the list.
+     * 
+     * The list keeps indexes by type, completion status and date, which are rebuilt
+     * on the first query after a change, so repeated queries over an unchanged list
+     * only examine the candidates of the cheapest index.
+     * 
+     * @param query The query to run
+     * @return The matching tasks, the plan used and the number of tasks examined
+     */
+    public Query.Result query(Query query) {
+        assert query != null : "Query cannot be null";
+        if (index == null) {
+            index = TaskIndex.build(tasks);
+        }
+        return query.execute(tasks, index);
+    }
+
+    /**
+     * Registers a saved search, replacing any existing search with the same name.
+     * 
+     * The search is evaluated once against the whole list; afterwards its results
+     * are updated one task at a time as tasks are added, deleted, marked or unmarked.
+     * 
+     * @param name The name of the search
+     * @param queryText The query, as accepted by {@link Query#parse(String)}
+     * @return The saved search
+     * @throws IllegalArgumentException If the query is malformed
+     */
+    public SavedSearch watch(String name, String queryText) {
+        assert name != null && !name.isEmpty() : "Search name cannot be empty";
+        SavedSearch search = new SavedSearch(name, queryText, Query.parse(queryText));
         for (Task task : tasks) {
-            if (task.title.toLowerCase().contains(lowerKeyword)) {
+            search.offer(sequences.get(task), task);
+        }
+        savedSearches.put(name, search);
+        return search;
+    }
+
+    /**
+     * Removes a saved search.
+     * 
+     * @param name The name of the search
+     * @return The removed search, or null if there was none with that name
+     */
+    public SavedSearch unwatch(String name) {
+        return savedSearches.remove(name);
+    }
+
+    /**
+     * Returns the saved search with the given name.
+     * 
+     * @param name The name of the search
+     * @return The saved search, or null if there is none with that name
+     */
+    public SavedSearch getSavedSearch(String name) {
+        return savedSearches.get(name);
+    }
+
+    /**
+     * Returns all saved searches, in the order they were registered.
+     * 
+     * @return The saved searches
+     */
+    public Collection<SavedSearch> savedSearches() {
+        return savedSearches.values();
+    }
+
+    private Page scan(int fromIndex, int limit, Predicate<Task> predicate) {
+        assert fromIndex >= 0 : "Start index must be non-negative, got: " + fromIndex;
+        assert limit > 0 : "Limit must be positive, got: " + limit;
+        List<Task> matches = new ArrayList<>();
+        for (int i = fromIndex; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (predicate.test(task)) {
                 matches.add(task);
+                if (matches.size() == limit) {
+                    int next = i + 1;
+                    return new Page(matches, next < tasks.size() ? next : -1);
+                }
             }
         }
-        return matches;
+        return new Page(matches, -1);
     }
-}
 
+    /**
+     * Represents one page of a query over the task list.
+     */
+    public static class Page {
+        private final List<Task> tasks;
+        private final int nextIndex;
+
+        Page(List<Task> tasks, int nextIndex) {
+            this.tasks = tasks;
+            this.nextIndex = nextIndex;
+        }
+
+        /**
+         * Returns the matching tasks on this page, in list order.
+         * 
+         * @return The matching tasks
+         */
+        public List<Task> getTasks() {
+            return tasks;
+        }
 
+        /**
+         * Returns whether the scan stopped before reaching the end of the list.
+         * Later positions may or may not contain further matches.
+         * 
+         * @return true if there are unscanned tasks left
+         */
+        public boolean hasMore() {
+            return nextIndex >= 0;
+        }
+
+        /**
+         * Returns the 0-based position to resume scanning from.
+         * 
+         * @return The position, or -1 if the whole list has been scanned
+         */
+        public int getNextIndex() {
+            return nextIndex;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package usagi.task;
+
+/**
+ * Represents an immutable snapshot of a task for display.
+ *
+ * Views let the user interfaces render a task's parts (type, status, title
+ * and details) directly instead of re-parsing the task's text form.
+ */
+public class TaskView {
+    private final String type;
+    private final boolean isDone;
+    private final String title;
+    private final String details;
+
+    /**
+     * Constructs a TaskView.
+     *
+     * @param type The type identifier ("T", "D", "E" or "R")
+     * @param isDone The completion status of the task
+     * @param title The title/description of the task
+     * @param details Type-specific details such as "(by: ...)", or an empty string
+     */
+    public TaskView(String type, boolean isDone, String title, String details) {
+        this.type = type;
+        this.isDone = isDone;
+        this.title = title;
+        this.details = details;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public boolean isDone() {
+        return isDone;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    /**
+     * Returns the type marker, such as "[T]".
+     *
+     * @return The bracketed type identifier
+     */
+    public String typeMarker() {
+        return "[" + type + "]";
+    }
+
+    /**
+     * Returns the status marker, "[X]" if done or "[ ]" otherwise.
+     *
+     * @return The bracketed status
+     */
+    public String statusMarker() {
+        return isDone ? "[X]" : "[ ]";
+    }
+
+    /**
+     * Returns the same text as the task's toString().
+     */
+    @Override
+    public String toString() {
+        String text = typeMarker() + statusMarker() + " " + title;
+        return details.isEmpty() ? text : text + " " + details;
+    }
+}
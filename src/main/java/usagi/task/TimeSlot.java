@@ -0,0 +1,47 @@
+package usagi.task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents a block of calendar time occupied by a task.
+ *
+ * An Event contributes a single slot, while a RecurringTask contributes
+ * one slot per occurrence. A slot without a task represents free time.
+ */
+public class TimeSlot {
+    private final Task task;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    /**
+     * Constructs a TimeSlot for the given task.
+     *
+     * @param task The task occupying the slot, or null for free time
+     * @param start The start of the slot
+     * @param end The end of the slot
+     */
+    public TimeSlot(Task task, LocalDateTime start, LocalDateTime end) {
+        assert start != null && end != null : "Slot boundaries cannot be null";
+        assert !start.isAfter(end) : "Slot start cannot be after end";
+        this.task = task;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Returns the task occupying this slot.
+     *
+     * @return The task, or null if the slot is free time
+     */
+    public Task getTask() {
+        return task;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+}
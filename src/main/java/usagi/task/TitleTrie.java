@@ -0,0 +1,359 @@
+package usagi.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+/**
+ * Indexes task titles by prefix, for completing titles as the user types them.
+ *
+ * Titles are kept in a radix tree: each edge is labelled with a run of characters
+ * rather than a single one, so there are at most about twice as many nodes as
+ * distinct titles. Matching ignores case. Every title carries the time it was
+ * last used, and every node the latest time used of any title below it, so the
+ * most recently used titles under a prefix are found by visiting the subtrees in
+ * that order, without looking at titles that do not make the cut.
+ *
+ * TaskList keeps the trie up to date as tasks are added, changed and deleted.
+ */
+final class TitleTrie {
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Task[] NO_TASKS = new Task[0];
+    private static final long[] NO_TIMES = new long[0];
+
+    private final Node root = new Node("", null);
+
+    /**
+     * Adds a task under its title.
+     *
+     * @param task The task
+     * @param time When the task was last used; later uses have larger times
+     */
+    void add(Task task, long time) {
+        String key = key(task);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            char c = key.charAt(i);
+            int slot = node.find(c);
+            if (slot < 0) {
+                Node leaf = new Node(key.substring(i), node);
+                node.insertChild(-slot - 1, leaf);
+                node = leaf;
+                break;
+            }
+            Node child = node.children[slot];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                child = split(node, slot, common);
+            }
+            node = child;
+            i += common;
+        }
+
+        node.addTask(task, time);
+        raise(node, time);
+    }
+
+    /**
+     * Records that a task was used, so that its title ranks as recently used.
+     *
+     * @param task The task, which must have been added
+     * @param time When the task was used
+     */
+    void touch(Task task, long time) {
+        Node node = lookup(key(task));
+        if (node != null && node.setTime(task, time)) {
+            raise(node, time);
+        }
+    }
+
+    /**
+     * Removes a task. Its title stays in the trie while other tasks have it.
+     *
+     * @param task The task, which must have been added
+     */
+    void remove(Task task) {
+        Node node = lookup(key(task));
+        if (node != null && node.removeTask(task)) {
+            prune(node);
+        }
+    }
+
+    /**
+     * Returns the most recently used task of each title starting with the prefix,
+     * most recently used title first.
+     *
+     * @param prefix The prefix, matched ignoring case
+     * @param limit The most titles to return
+     * @return The tasks, one per title
+     */
+    List<Task> complete(String prefix, int limit) {
+        List<Task> results = new ArrayList<>(Math.min(limit, 16));
+        Node start = descend(prefix.toLowerCase(Locale.ROOT));
+        if (start == null || limit <= 0) {
+            return results;
+        }
+
+        // Subtrees ordered by their latest time; a node whose own title is the
+        // latest in its subtree is entered as a title instead
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        queue.add(new Candidate(start, start.best, false));
+        while (!queue.isEmpty() && results.size() < limit) {
+            Candidate candidate = queue.poll();
+            Node node = candidate.node;
+            if (candidate.isTitle) {
+                results.add(node.latest);
+                continue;
+            }
+            if (node.taskCount > 0) {
+                queue.add(new Candidate(node, node.time, true));
+            }
+            for (int i = 0; i < node.childCount; i++) {
+                queue.add(new Candidate(node.children[i], node.children[i].best, false));
+            }
+        }
+        return results;
+    }
+
+    private static String key(Task task) {
+        return task.getTitle().toLowerCase(Locale.ROOT);
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        int max = Math.min(label.length(), key.length() - from);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(from + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Splits the edge to a child after the given number of characters, and returns
+     * the node inserted at the split.
+     */
+    private static Node split(Node parent, int slot, int at) {
+        Node child = parent.children[slot];
+        Node middle = new Node(child.label.substring(0, at), parent);
+        middle.best = child.best;
+        parent.children[slot] = middle;
+        child.label = child.label.substring(at);
+        child.parent = middle;
+        middle.insertChild(0, child);
+        return middle;
+    }
+
+    /**
+     * Returns the node a key ends at exactly, or null if there is none.
+     */
+    private Node lookup(String key) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int slot = node.find(key.charAt(i));
+            if (slot < 0) {
+                return null;
+            }
+            node = node.children[slot];
+            if (!key.startsWith(node.label, i)) {
+                return null;
+            }
+            i += node.label.length();
+        }
+        return node;
+    }
+
+    /**
+     * Returns the highest node whose titles all start with the prefix, or null if none does.
+     */
+    private Node descend(String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int slot = node.find(prefix.charAt(i));
+            if (slot < 0) {
+                return null;
+            }
+            node = node.children[slot];
+            int common = commonPrefix(node.label, prefix, i);
+            if (common < node.label.length() && i + common < prefix.length()) {
+                return null;
+            }
+            i += common;
+        }
+        return node;
+    }
+
+    /**
+     * Raises the latest times of a node and the nodes above it to the given time.
+     */
+    private static void raise(Node node, long time) {
+        for (Node n = node; n != null && n.best < time; n = n.parent) {
+            n.best = time;
+        }
+    }
+
+    /**
+     * After a task was removed from a node, removes the node if it is left without
+     * titles, merges a node left with a single child into it, and recomputes the
+     * latest times from there up.
+     */
+    private void prune(Node node) {
+        Node parent = node.parent;
+        if (node != root && node.taskCount == 0 && node.childCount == 0) {
+            parent.removeChild(node);
+            node = parent;
+            parent = node.parent;
+        }
+        if (node != root && node.taskCount == 0 && node.childCount == 1) {
+            Node only = node.children[0];
+            only.label = node.label + only.label;
+            only.parent = parent;
+            parent.children[parent.find(node.label.charAt(0))] = only;
+            node = parent;
+        }
+        for (Node n = node; n != null; n = n.parent) {
+            long best = n.taskCount > 0 ? n.time : 0;
+            for (int i = 0; i < n.childCount; i++) {
+                best = Math.max(best, n.children[i].best);
+            }
+            n.best = best;
+        }
+    }
+
+    private static final class Node {
+        private String label; // the characters on the edge from the parent
+        private Node parent;
+        // Children sorted by the first character of their labels, which are all different
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int childCount;
+        // The tasks with the title ending here, usually none or one, and when each was last used
+        private Task[] tasks = NO_TASKS;
+        private long[] times = NO_TIMES;
+        private int taskCount;
+        private Task latest; // the most recently used of those tasks
+        private long time; // when that task was used
+        private long best; // the latest time of any title in this subtree
+
+        Node(String label, Node parent) {
+            this.label = label;
+            this.parent = parent;
+        }
+
+        void addTask(Task task, long taskTime) {
+            if (taskCount == tasks.length) {
+                int capacity = Math.max(1, taskCount * 2);
+                tasks = Arrays.copyOf(tasks, capacity);
+                times = Arrays.copyOf(times, capacity);
+            }
+            tasks[taskCount] = task;
+            times[taskCount] = taskTime;
+            taskCount++;
+            if (taskTime >= time) {
+                time = taskTime;
+                latest = task;
+            }
+        }
+
+        boolean setTime(Task task, long taskTime) {
+            int i = indexOf(task);
+            if (i < 0) {
+                return false;
+            }
+            times[i] = taskTime;
+            if (taskTime >= time) {
+                time = taskTime;
+                latest = task;
+            }
+            return true;
+        }
+
+        boolean removeTask(Task task) {
+            int i = indexOf(task);
+            if (i < 0) {
+                return false;
+            }
+            taskCount--;
+            tasks[i] = tasks[taskCount];
+            times[i] = times[taskCount];
+            tasks[taskCount] = null;
+            latest = null;
+            time = 0;
+            for (int j = 0; j < taskCount; j++) {
+                if (times[j] >= time) {
+                    time = times[j];
+                    latest = tasks[j];
+                }
+            }
+            return true;
+        }
+
+        private int indexOf(Task task) {
+            for (int i = 0; i < taskCount; i++) {
+                if (tasks[i] == task) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Returns the slot of the child whose label starts with the character,
+         * or (-(insertion point) - 1) if there is none.
+         */
+        int find(char c) {
+            return Arrays.binarySearch(keys, 0, childCount, c);
+        }
+
+        void insertChild(int slot, Node child) {
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, slot, keys, slot + 1, childCount - slot);
+            System.arraycopy(children, slot, children, slot + 1, childCount - slot);
+            keys[slot] = child.label.charAt(0);
+            children[slot] = child;
+            childCount++;
+        }
+
+        void removeChild(Node child) {
+            int slot = find(child.label.charAt(0));
+            System.arraycopy(keys, slot + 1, keys, slot, childCount - slot - 1);
+            System.arraycopy(children, slot + 1, children, slot, childCount - slot - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+    }
+
+    /**
+     * A subtree, or the title of a single node, waiting to be visited.
+     */
+    private static final class Candidate implements Comparable<Candidate> {
+        private final Node node;
+        private final long time;
+        private final boolean isTitle;
+
+        Candidate(Node node, long time, boolean isTitle) {
+            this.node = node;
+            this.time = time;
+            this.isTitle = isTitle;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            int byTime = Long.compare(other.time, time); // latest first
+            if (byTime != 0) {
+                return byTime;
+            }
+            // A title before the subtree it heads, which has the same time
+            return Boolean.compare(other.isTitle, isTitle);
+        }
+    }
+}
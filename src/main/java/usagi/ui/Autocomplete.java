@@ -0,0 +1,110 @@
+package usagi.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.animation.PauseTransition;
+import javafx.geometry.Side;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+import usagi.command.Suggestion;
+
+/**
+ * Suggests completions for the command being typed in a text field, in a menu
+ * above it.
+ *
+ * Suggestions are looked up once typing pauses, on the command worker so that
+ * the task list is never read while a command changes it. An answer that
+ * arrives after the text has changed again is dropped. Choosing a suggestion
+ * replaces the text with it.
+ */
+class Autocomplete {
+    private static final Duration DEBOUNCE = Duration.millis(120);
+    private static final int LIMIT = 8;
+
+    private final TextField input;
+    private final ContextMenu menu = new ContextMenu();
+    private final PauseTransition debounce = new PauseTransition(DEBOUNCE);
+    private CommandRunner runner; // null until Usagi is being loaded
+    private int generation; // counts changes to the text, to tell stale answers apart
+    private boolean isApplying; // true while a chosen suggestion is put into the text field
+
+    /**
+     * Starts suggesting completions for a text field.
+     *
+     * @param input The text field
+     */
+    Autocomplete(TextField input) {
+        this.input = input;
+        menu.setAutoHide(true);
+        debounce.setOnFinished(e -> request());
+        input.textProperty().addListener((observable, oldText, newText) -> {
+            generation++;
+            if (isApplying || newText == null || newText.isBlank()) {
+                debounce.stop();
+                menu.hide();
+                return;
+            }
+            debounce.playFromStart();
+        });
+        input.focusedProperty().addListener((observable, wasFocused, isFocused) -> {
+            if (!isFocused) {
+                menu.hide();
+            }
+        });
+    }
+
+    /**
+     * Sets the runner whose worker looks up suggestions.
+     *
+     * @param runner The runner
+     */
+    void setRunner(CommandRunner runner) {
+        this.runner = runner;
+    }
+
+    private void request() {
+        if (runner == null) {
+            return;
+        }
+        String text = input.getText();
+        int requested = generation;
+        runner.query(usagi -> usagi.suggest(text, LIMIT), suggestions -> show(requested, suggestions));
+    }
+
+    private void show(int requested, List<Suggestion> suggestions) {
+        if (requested != generation) {
+            return; // the text changed while the suggestions were looked up
+        }
+        if (suggestions.isEmpty()) {
+            menu.hide();
+            return;
+        }
+
+        List<MenuItem> items = new ArrayList<>(suggestions.size());
+        for (Suggestion suggestion : suggestions) {
+            MenuItem item = new MenuItem(suggestion.getLabel());
+            item.setMnemonicParsing(false);
+            item.setOnAction(e -> apply(suggestion));
+            items.add(item);
+        }
+        menu.getItems().setAll(items);
+        if (!menu.isShowing()) {
+            // The input is at the bottom of the window, so the menu opens above it
+            menu.show(input, Side.TOP, 0, 0);
+        }
+    }
+
+    private void apply(Suggestion suggestion) {
+        isApplying = true;
+        try {
+            input.setText(suggestion.getInput());
+        } finally {
+            isApplying = false;
+        }
+        input.positionCaret(suggestion.getInput().length());
+        input.requestFocus();
+    }
+}
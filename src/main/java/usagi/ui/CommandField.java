@@ -0,0 +1,52 @@
+package usagi.ui;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import javafx.scene.control.IndexRange;
+import javafx.scene.control.TextField;
+import javafx.scene.input.Clipboard;
+
+/**
+ * A text field for commands that accepts several commands pasted at once.
+ *
+ * A text field holds a single line, and would join the lines of pasted text
+ * into one. Instead, when the pasted text holds several non-blank lines, the
+ * field hands every non-blank line to its batch handler as a command of its
+ * own, and is cleared. Text around the selection that the paste would replace
+ * becomes part of the first and last commands.
+ */
+public class CommandField extends TextField {
+    private Consumer<List<String>> onBatch = lines -> {};
+
+    /**
+     * Sets what to do with the commands pasted at once.
+     *
+     * @param onBatch Takes the commands, in the order they were pasted
+     */
+    public void setOnBatch(Consumer<List<String>> onBatch) {
+        assert onBatch != null : "Batch handler cannot be null";
+        this.onBatch = onBatch;
+    }
+
+    @Override
+    public void paste() {
+        String pasted = Clipboard.getSystemClipboard().getString();
+        if (pasted == null || pasted.lines().filter(line -> !line.isBlank()).count() < 2) {
+            super.paste(); // a single line is only sent when the user presses Enter
+            return;
+        }
+
+        String text = getText();
+        IndexRange selection = getSelection();
+        String combined = text.substring(0, selection.getStart()) + pasted + text.substring(selection.getEnd());
+        List<String> lines = combined.lines()
+                .filter(line -> !line.isBlank())
+                .collect(Collectors.toList());
+        clear();
+        if (!lines.isEmpty()) {
+            onBatch.accept(lines);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package usagi.ui;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import usagi.exception.UsagiException;
+import usagi.parser.Parser;
+
+/**
+ * Runs commands away from the user interface thread.
+ *
+ * Commands run one at a time on a single worker, a virtual thread where the
+ * runtime supports them, so they take effect and reply in the order they were
+ * submitted. Replies are handed back through the given executor, which for the
+ * GUI is the JavaFX application thread.
+ *
+ * The chatbot itself can be loaded on the worker too, so that the window does
+ * not wait for the task file; commands submitted meanwhile run once it is loaded.
+ */
+class CommandRunner {
+    private static final String THREAD_NAME = "usagi-commands";
+
+    private final Executor replyExecutor;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(threadFactory());
+    private Usagi usagi; // used by the worker only once set; null until loaded
+    private String loadError; // why loading failed, if it did
+
+    /**
+     * Constructs a CommandRunner for a chatbot that is yet to be loaded with
+     * {@link #load(Supplier, Consumer)}.
+     *
+     * @param replyExecutor Runs the reply callbacks, such as {@code Platform::runLater}
+     */
+    CommandRunner(Executor replyExecutor) {
+        assert replyExecutor != null : "Reply executor cannot be null";
+        this.replyExecutor = replyExecutor;
+    }
+
+    /**
+     * Constructs a CommandRunner.
+     *
+     * @param usagi The chatbot that runs the commands
+     * @param replyExecutor Runs the reply callbacks, such as {@code Platform::runLater}
+     */
+    CommandRunner(Usagi usagi, Executor replyExecutor) {
+        this(replyExecutor);
+        assert usagi != null : "Usagi cannot be null";
+        this.usagi = usagi;
+    }
+
+    /**
+     * Loads the chatbot on the worker. Commands submitted after this run once it
+     * has loaded, and reply with an error if it failed to.
+     *
+     * @param loader Creates the chatbot, such as by loading its task file
+     * @param onLoaded Receives a message saying how many tasks were loaded, or why loading failed
+     */
+    void load(Supplier<Usagi> loader, Consumer<Message> onLoaded) {
+        worker.execute(() -> {
+            Message reply = loadWith(loader);
+            replyExecutor.execute(() -> onLoaded.accept(reply));
+        });
+    }
+
+    private Message loadWith(Supplier<Usagi> loader) {
+        try {
+            usagi = loader.get();
+            return Message.reply("Loaded " + usagi.getService().size() + " task(s). Ready when you are!");
+        } catch (RuntimeException | Error e) {
+            // Including failed assertions, so that the loading placeholder always gets its reply
+            loadError = "Usagi could not load your tasks: " + e;
+            return Message.error(loadError);
+        }
+    }
+
+    /**
+     * Queues a command. Its reply, or an error message, is passed to the callback
+     * on the reply executor once every earlier command has replied.
+     *
+     * @param input The command
+     * @param onReply Receives the reply
+     */
+    void submit(String input, Consumer<Message> onReply) {
+        worker.execute(() -> {
+            Message reply = run(input);
+            replyExecutor.execute(() -> onReply.accept(reply));
+        });
+    }
+
+    /**
+     * Queues commands to run as one batch, so that the task file is written once
+     * after the last of them rather than after each. Each reply is passed to the
+     * callback at the same position as its command, and a summary of the batch
+     * to {@code onFinished} after the last reply. If a batch is already in
+     * progress, the commands join it and are saved when it ends.
+     *
+     * @param inputs The commands, in order
+     * @param onReplies Receive the replies, one for each command
+     * @param onFinished Receives the summary, or why the batch could not be saved
+     */
+    void submitBatch(List<String> inputs, List<Consumer<Message>> onReplies, Consumer<Message> onFinished) {
+        assert inputs.size() == onReplies.size() : "Each command needs a reply callback";
+        worker.execute(() -> {
+            boolean isOwnBatch = beginBatch();
+            for (int i = 0; i < inputs.size(); i++) {
+                Message reply = Parser.isBatchControl(inputs.get(i))
+                        ? Message.error("'" + inputs.get(i).trim() + "' cannot be used among pasted commands")
+                        : run(inputs.get(i));
+                Consumer<Message> onReply = onReplies.get(i);
+                replyExecutor.execute(() -> onReply.accept(reply));
+            }
+            Message summary;
+            if (usagi == null) {
+                summary = notLoaded();
+            } else if (isOwnBatch) {
+                summary = endBatch();
+            } else {
+                summary = Message.reply("Added " + inputs.size() + " command(s) to the batch in progress.");
+            }
+            replyExecutor.execute(() -> onFinished.accept(summary));
+        });
+    }
+
+    /**
+     * Starts a batch unless one is in progress or the chatbot has not loaded.
+     *
+     * @return true if a batch was started
+     */
+    private boolean beginBatch() {
+        if (usagi == null || usagi.isBatching()) {
+            return false;
+        }
+        try {
+            usagi.beginBatch();
+            return true;
+        } catch (UsagiException e) {
+            return false;
+        }
+    }
+
+    private Message endBatch() {
+        if (!usagi.isBatching()) {
+            return Message.error("The batch was ended early; later commands were saved one by one");
+        }
+        try {
+            return Message.reply(usagi.endBatch());
+        } catch (UsagiException e) {
+            return Message.error(e.getMessage());
+        }
+    }
+
+    /**
+     * Asks the chatbot something on the worker, between commands, so that the
+     * chatbot is only ever used by one thread. Nothing is answered if the chatbot
+     * has not loaded or the question fails.
+     *
+     * @param question Works out the answer from the chatbot
+     * @param onAnswer Receives the answer on the reply executor
+     * @param <T> The type of the answer
+     */
+    <T> void query(Function<Usagi, T> question, Consumer<T> onAnswer) {
+        worker.execute(() -> {
+            if (usagi == null) {
+                return;
+            }
+            try {
+                T answer = question.apply(usagi);
+                replyExecutor.execute(() -> onAnswer.accept(answer));
+            } catch (RuntimeException e) {
+                System.err.println("Query failed: " + e);
+            }
+        });
+    }
+
+    /**
+     * Runs an action on the reply executor once every command submitted so far has replied.
+     *
+     * @param action The action
+     */
+    void afterReplies(Runnable action) {
+        worker.execute(() -> replyExecutor.execute(action));
+    }
+
+    private Message run(String input) {
+        if (usagi == null) {
+            return notLoaded();
+        }
+        try {
+            return Message.reply(usagi.getResult(input));
+        } catch (UsagiException e) {
+            return Message.error(e.getMessage() != null ? e.getMessage() : "An unexpected error occurred");
+        } catch (RuntimeException | Error e) {
+            // Including failed assertions, so that the placeholder always gets its reply
+            return Message.error("An unexpected error occurred: " + e);
+        }
+    }
+
+    private Message notLoaded() {
+        return Message.error(loadError != null ? loadError : "Usagi has not been loaded");
+    }
+
+    /**
+     * Stops accepting commands; commands already queued still run.
+     */
+    void shutdown() {
+        worker.shutdown();
+    }
+
+    /**
+     * Creates virtual threads where the runtime supports them (Java 21 and later),
+     * and daemon platform threads otherwise, so the worker never keeps the
+     * application alive.
+     */
+    private static ThreadFactory threadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class).invoke(builder, THREAD_NAME);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return runnable -> {
+                Thread thread = new Thread(runnable, THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+}
@@ -1,100 +1,156 @@
 package usagi.ui;
 
-import java.io.IOException;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
+import javafx.scene.Parent;
 import javafx.scene.control.Label;
 import javafx.scene.input.Clipboard;
 import javafx.scene.input.ClipboardContent;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
-import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextFlow;
 import javafx.animation.FadeTransition;
 import javafx.animation.PauseTransition;
 import javafx.animation.SequentialTransition;
 import javafx.util.Duration;
+import usagi.command.CommandResult;
+import usagi.task.TaskView;
 
+/**
+ * Displays one message of the chat as a bubble next to the sender's picture.
+ *
+ * A dialog box can show a different message at any time through
+ * {@link #show(Message, Image)}, which is how the transcript reuses its cells.
+ * Dialog boxes are built in code rather than loaded from FXML, since they are
+ * created often and parsing a layout each time dominated their cost.
+ */
 public class DialogBox extends HBox {
+    private static final double NOTIFICATION_BOTTOM = 55.0; // just above the input bar
+    private static final double PICTURE_SIZE = 99.0;
+    private static final Message EMPTY = Message.reply("");
 
-    @FXML
-    private Label dialog;
-    @FXML
-    private ImageView displayPicture;
-    
-    private String textContent;
-
-    private DialogBox(String text, Image img) {
-        // Store the text content for clipboard functionality
-        this.textContent = text != null ? text : "";
-        
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(DialogBox.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            System.err.println("Failed to load DialogBox FXML: " + e.getMessage());
-            // Create a fallback UI programmatically
-            createFallbackUI();
-        }
+    private final Label dialog = new Label();
+    private final ImageView displayPicture = new ImageView();
+
+    private Message message = EMPTY;
+
+    /**
+     * Creates an empty dialog box, to be filled by {@link #show(Message, Image)}.
+     */
+    DialogBox() {
+        dialog.setWrapText(true);
+        dialog.setMinHeight(Region.USE_PREF_SIZE);
+        // Add click event handler to copy text to clipboard
+        dialog.setOnMouseClicked(this::handleClick);
+
+        displayPicture.setId("displayPicture");
+        displayPicture.setFitWidth(PICTURE_SIZE);
+        displayPicture.setFitHeight(PICTURE_SIZE);
+        displayPicture.setPreserveRatio(true);
+        displayPicture.setPickOnBounds(true);
 
         // Set spacing between profile picture and message bubble
-        this.setSpacing(12);
-
-        if (dialog != null) {
-            dialog.setText(this.textContent);
-            // Apply default user styling
-            dialog.getStyleClass().add("label");
-            // Add click event handler to copy text to clipboard
-            dialog.setOnMouseClicked(this::handleClick);
+        setSpacing(12);
+        setPadding(new Insets(15, 5, 15, 5));
+        setPrefWidth(400);
+        setMaxWidth(Double.MAX_VALUE);
+        setMaxHeight(Double.MAX_VALUE);
+        getChildren().setAll(dialog, displayPicture);
+        setAlignment(Pos.TOP_RIGHT);
+    }
+
+    /**
+     * Shows a message, replacing whatever this dialog box showed before.
+     *
+     * User messages appear on the right, with the picture after the bubble;
+     * replies appear on the left, with the picture first.
+     *
+     * @param message The message to show
+     * @param img The picture of the sender
+     */
+    void show(Message message, Image img) {
+        assert message != null : "Message cannot be null";
+        this.message = message;
+        displayPicture.setImage(img);
+
+        switch (message.getKind()) {
+        case USER:
+            // Default user styling
+            dialog.getStyleClass().setAll("label");
+            break;
+        case ERROR:
+            // Red error styling
+            dialog.getStyleClass().setAll("error-label");
+            break;
+        case PENDING:
+            dialog.getStyleClass().setAll("reply-label", "pending-label");
+            break;
+        default:
+            dialog.getStyleClass().setAll("reply-label");
+            break;
         }
-        if (displayPicture != null && img != null) {
-            displayPicture.setImage(img);
+
+        if (message.hasTasks()) {
+            // Show the tasks formatted instead of the plain text
+            dialog.setText("");
+            dialog.setGraphic(createFormattedTaskText(message.getResult()));
+        } else {
+            dialog.setGraphic(null);
+            dialog.setText(message.getText());
+        }
+
+        if (message.isFromUser()) {
+            getChildren().setAll(dialog, displayPicture);
+            setAlignment(Pos.TOP_RIGHT);
+        } else {
+            getChildren().setAll(displayPicture, dialog);
+            setAlignment(Pos.TOP_LEFT);
         }
     }
-    
+
     /**
-     * Creates a fallback UI if FXML loading fails.
+     * Forgets the message and picture shown, so that the dialog box of an empty
+     * cell does not keep them alive.
      */
-    private void createFallbackUI() {
-        dialog = new Label();
-        dialog.getStyleClass().add("label"); // Default to user styling
-        dialog.setText(this.textContent);
-        dialog.setOnMouseClicked(this::handleClick);
-        displayPicture = new ImageView();
-        this.getChildren().addAll(dialog, displayPicture);
-        this.setSpacing(12); // Consistent spacing with main constructor
-        this.setAlignment(Pos.CENTER_LEFT);
+    void clear() {
+        message = EMPTY;
+        dialog.setGraphic(null);
+        dialog.setText("");
+        displayPicture.setImage(null);
     }
-    
+
     /**
      * Handles click events to copy text to clipboard.
      */
     private void handleClick(MouseEvent event) {
+        if (message.getKind() == Message.Kind.PENDING) {
+            return;
+        }
+        String textContent = message.getText();
         if (textContent != null && !textContent.trim().isEmpty()) {
             Clipboard clipboard = Clipboard.getSystemClipboard();
             ClipboardContent content = new ClipboardContent();
             content.putString(textContent);
             clipboard.setContent(content);
-            
+
             // Show "Copied!" notification
             showCopyNotification();
         }
     }
-    
+
     /**
-     * Shows a "Copied!" notification that fades in and out at the top of the dialog container.
+     * Shows a "Copied!" notification that fades in and out at the bottom of the window.
      */
     private void showCopyNotification() {
         // Create notification label
@@ -105,72 +161,60 @@ public class DialogBox extends HBox {
                              "-fx-background-radius: 20px; " +
                              "-fx-font-size: 14px; " +
                              "-fx-font-weight: bold;");
-        
+
         // Position notification at the bottom center
         StackPane notificationPane = new StackPane(notification);
         notificationPane.setAlignment(Pos.BOTTOM_CENTER);
         notificationPane.setStyle("-fx-background-color: transparent;");
-        
-        // Find the dialog container (VBox) to add the notification
-        Node parent = this.getParent();
-        while (parent != null && !(parent instanceof VBox)) {
-            parent = parent.getParent();
-        }
-        
-        if (parent instanceof VBox) {
-            VBox dialogContainer = (VBox) parent;
-            
-            // Add notification at the bottom of the dialog container (right above input bar)
-            dialogContainer.getChildren().add(notificationPane);
-            
-            // Create fade in animation
-            FadeTransition fadeIn = new FadeTransition(Duration.millis(200), notification);
-            fadeIn.setFromValue(0.0);
-            fadeIn.setToValue(1.0);
-            
-            // Create pause
-            PauseTransition pause = new PauseTransition(Duration.millis(1000));
-            
-            // Create fade out animation
-            FadeTransition fadeOut = new FadeTransition(Duration.millis(300), notification);
-            fadeOut.setFromValue(1.0);
-            fadeOut.setToValue(0.0);
-            
-            // Create sequential animation
-            SequentialTransition sequence = new SequentialTransition(fadeIn, pause, fadeOut);
-            
-            // Remove notification after animation completes
-            sequence.setOnFinished(e -> {
-                dialogContainer.getChildren().remove(notificationPane);
-            });
-            
-            sequence.play();
+        notificationPane.setMouseTransparent(true);
+
+        // The dialog box may be inside a list cell, so the notification goes on the window's root
+        Parent root = getScene() != null ? getScene().getRoot() : null;
+        if (!(root instanceof Pane)) {
+            return;
         }
-    }
+        Pane container = (Pane) root;
+        AnchorPane.setLeftAnchor(notificationPane, 0.0);
+        AnchorPane.setRightAnchor(notificationPane, 0.0);
+        AnchorPane.setBottomAnchor(notificationPane, NOTIFICATION_BOTTOM);
+        container.getChildren().add(notificationPane);
 
+        // Create fade in animation
+        FadeTransition fadeIn = new FadeTransition(Duration.millis(200), notification);
+        fadeIn.setFromValue(0.0);
+        fadeIn.setToValue(1.0);
 
-    private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(tmp);
-        getChildren().setAll(tmp);
-        setAlignment(Pos.TOP_LEFT);
+        // Create pause
+        PauseTransition pause = new PauseTransition(Duration.millis(1000));
+
+        // Create fade out animation
+        FadeTransition fadeOut = new FadeTransition(Duration.millis(300), notification);
+        fadeOut.setFromValue(1.0);
+        fadeOut.setToValue(0.0);
+
+        // Create sequential animation
+        SequentialTransition sequence = new SequentialTransition(fadeIn, pause, fadeOut);
+
+        // Remove notification after animation completes
+        sequence.setOnFinished(e -> {
+            container.getChildren().remove(notificationPane);
+        });
+
+        sequence.play();
     }
 
     public static DialogBox getUserDialog(String text, Image img) {
-        return new DialogBox(text, img);
+        var db = new DialogBox();
+        db.show(Message.fromUser(text), img);
+        return db;
     }
 
     public static DialogBox getUsagiDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.flip();
-        // Apply Usagi-specific styling
-        if (db.dialog != null) {
-            db.dialog.getStyleClass().clear();
-            db.dialog.getStyleClass().add("reply-label");
-        }
+        var db = new DialogBox();
+        db.show(Message.reply(text), img);
         return db;
     }
-    
+
     /**
      * Creates a Usagi dialog for error messages with red background.
      * @param text The error message to display
@@ -178,207 +222,78 @@ public class DialogBox extends HBox {
      * @return A DialogBox with red error styling
      */
     public static DialogBox getUsagiErrorDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.flip();
-        
-        // Apply error styling
-        if (db.dialog != null) {
-            db.dialog.getStyleClass().clear();
-            db.dialog.getStyleClass().add("error-label");
-        }
-        
+        var db = new DialogBox();
+        db.show(Message.error(text), img);
         return db;
     }
-    
+
     /**
      * Creates a Usagi dialog with formatted task text (bold task type and title).
-     * @param text The task text to display with formatting
+     * @param result The command result to display, whose task lines are formatted
      * @param img The image to display
      * @return A DialogBox with formatted task text
      */
-    public static DialogBox getUsagiTaskDialog(String text, Image img) {
-        var db = new DialogBox("", img); // Empty text, we'll set TextFlow
-        db.flip();
-        
-        // Store the original text for clipboard functionality
-        db.textContent = text;
-        
-        // Create formatted task display
-        TextFlow taskFlow = createFormattedTaskText(text);
-        
-        // Add click handler to TextFlow for clipboard functionality
-        taskFlow.setOnMouseClicked(db::handleClick);
-        
-        // Replace the Label with TextFlow
-        if (db.dialog != null) {
-            db.dialog.getStyleClass().clear();
-            db.dialog.getStyleClass().add("reply-label");
-            
-            // Remove click handler from dialog to prevent double notifications
-            db.dialog.setOnMouseClicked(null);
-            
-            // Clear the label and add the TextFlow
-            db.dialog.setText("");
-            db.dialog.setGraphic(taskFlow);
-        }
-        
+    public static DialogBox getUsagiTaskDialog(CommandResult result, Image img) {
+        var db = new DialogBox();
+        db.show(Message.reply(result), img);
         return db;
     }
-    
+
     /**
-     * Creates formatted text for task display with bold task type and title.
-     * @param taskText The raw task text (can be multi-line with multiple tasks)
+     * Creates formatted text for task display with bold task type, status and title.
+     *
+     * The text is styled by the classes in dialog-box.css rather than inline styles.
+     * Text of normal weight between two bold runs, such as the details of one task,
+     * the line break and the number of the next, goes into a single node, so each
+     * task line adds two nodes.
+     *
+     * @param result The command result, whose lines are either plain text or tasks
      * @return TextFlow with formatted text
      */
-    private static TextFlow createFormattedTaskText(String taskText) {
-        TextFlow textFlow = new TextFlow();
-        
-        if (taskText == null || taskText.trim().isEmpty()) {
-            textFlow.getChildren().add(new Text(""));
-            return textFlow;
-        }
-        
-        
-        // Split the text into lines and process each line
-        String[] lines = taskText.split("\n");
-        
-        for (int i = 0; i < lines.length; i++) {
-            String line = lines[i];
-            
+    static TextFlow createFormattedTaskText(CommandResult result) {
+        List<CommandResult.Line> lines = result.getLines();
+        List<Node> nodes = new ArrayList<>(lines.size() * 2 + 1);
+        StringBuilder plain = new StringBuilder(); // normal text not yet added
+
+        for (int i = 0; i < lines.size(); i++) {
+            CommandResult.Line line = lines.get(i);
+
             // Add line break between lines (except for the first line)
             if (i > 0) {
-                Text lineBreak = new Text("\n");
-                textFlow.getChildren().add(lineBreak);
+                plain.append('\n');
             }
-            
-            // Check if this line contains a task (starts with number and task type)
-            if (line.matches("^\\d+\\.\\[[TDE]\\].*")) {
-                // This is a numbered task line like "1.[T][X] ps1"
-                
-                // Extract the number part (e.g., "1.")
-                int taskStartIndex = line.indexOf("[");
-                String numberPart = line.substring(0, taskStartIndex);
-                String taskPart = line.substring(taskStartIndex);
-                
-                // Add the number part (not bold)
-                Text numberText = new Text(numberPart);
-                numberText.setStyle("-fx-fill: #2e2e2e;");
-                textFlow.getChildren().add(numberText);
-                
-                // Process the task part
-                if (taskPart.startsWith("[T]") || taskPart.startsWith("[D]") || 
-                    taskPart.startsWith("[E]") || taskPart.startsWith("[R]")) {
-                    
-                    // Extract task type (first 3 characters: [T], [D], [E], or [R])
-                    String taskType = taskPart.substring(0, 3);
-                    
-                    // Extract status (next 3 characters: [X] or [ ])
-                    String status = taskPart.substring(3, 6);
-                    
-                    // Extract the rest (title and details)
-                    String rest = taskPart.substring(6);
-                    
-                    
-                    // Create bold task type
-                    Text typeText = new Text(taskType);
-                    typeText.setStyle("-fx-font-weight: bold; -fx-fill: #2e2e2e; -fx-font-size: 15px;");
-                    
-                    // Create status (bold) - preserve original status [X] or [ ]
-                    Text statusText = new Text(status);
-                    statusText.setStyle("-fx-font-weight: bold; -fx-fill: #2e2e2e; -fx-font-size: 15px;");
-                    
-                    // Extract title (everything before the first parenthesis)
-                    String title;
-                    String details = "";
-                    int parenIndex = rest.indexOf('(');
-                    if (parenIndex > 0) {
-                        title = rest.substring(0, parenIndex).trim();
-                        details = rest.substring(parenIndex);
-                    } else {
-                        title = rest.trim();
-                    }
-                    
-                    // Create bold title
-                    Text titleText = new Text(title);
-                    titleText.setStyle("-fx-font-weight: bold; -fx-fill: #2e2e2e; -fx-font-size: 15px;");
-                    
-                    // Create details (not bold)
-                    Text detailsText = new Text(details);
-                    detailsText.setStyle("-fx-fill: #2e2e2e;");
-                    
-                    textFlow.getChildren().addAll(typeText, statusText, titleText, detailsText);
-                } else {
-                    // Fallback for task part
-                    Text taskText_normal = new Text(taskPart);
-                    taskText_normal.setStyle("-fx-fill: #2e2e2e;");
-                    textFlow.getChildren().add(taskText_normal);
-                }
-            } else if (line.contains("[T]") || line.contains("[D]") || line.contains("[E]") || line.contains("[R]")) {
-                // This might be a single task line without numbering (like from add commands)
-                
-                // Find the task part
-                int taskStartIndex = line.indexOf("[");
-                if (taskStartIndex >= 0) {
-                    String beforeTask = line.substring(0, taskStartIndex);
-                    String taskPart = line.substring(taskStartIndex);
-                    
-                    // Add the part before the task (not bold)
-                    if (!beforeTask.isEmpty()) {
-                        Text beforeText = new Text(beforeTask);
-                        beforeText.setStyle("-fx-fill: #2e2e2e;");
-                        textFlow.getChildren().add(beforeText);
-                    }
-                    
-                    // Process the task part (same logic as above)
-                    if (taskPart.startsWith("[T]") || taskPart.startsWith("[D]") || 
-                        taskPart.startsWith("[E]") || taskPart.startsWith("[R]")) {
-                        
-                        String taskType = taskPart.substring(0, 3);
-                        String status = taskPart.substring(3, 6);
-                        String rest = taskPart.substring(6);
-                        
-                        Text typeText = new Text(taskType);
-                        typeText.setStyle("-fx-font-weight: bold; -fx-fill: #2e2e2e; -fx-font-size: 15px;");
-                        
-                        Text statusText = new Text(status);
-                        statusText.setStyle("-fx-font-weight: bold; -fx-fill: #2e2e2e; -fx-font-size: 15px;");
-                        
-                        String title;
-                        String details = "";
-                        int parenIndex = rest.indexOf('(');
-                        if (parenIndex > 0) {
-                            title = rest.substring(0, parenIndex).trim();
-                            details = rest.substring(parenIndex);
-                        } else {
-                            title = rest.trim();
-                        }
-                        
-                        Text titleText = new Text(title);
-                        titleText.setStyle("-fx-font-weight: bold; -fx-fill: #2e2e2e; -fx-font-size: 15px;");
-                        
-                        Text detailsText = new Text(details);
-                        detailsText.setStyle("-fx-fill: #2e2e2e;");
-                        
-                        textFlow.getChildren().addAll(typeText, statusText, titleText, detailsText);
-                    } else {
-                        Text taskText_normal = new Text(taskPart);
-                        taskText_normal.setStyle("-fx-fill: #2e2e2e;");
-                        textFlow.getChildren().add(taskText_normal);
-                    }
-                } else {
-                    // No task found in this line
-                    Text normalText = new Text(line);
-                    normalText.setStyle("-fx-fill: #2e2e2e;");
-                    textFlow.getChildren().add(normalText);
-                }
-            } else {
-                // Regular text line (not a task)
-                Text normalText = new Text(line);
-                normalText.setStyle("-fx-fill: #2e2e2e;");
-                textFlow.getChildren().add(normalText);
+
+            // Plain lines and the label of task lines (e.g. "1.") are not bold
+            plain.append(line.getText());
+            if (!line.isTask()) {
+                continue;
+            }
+
+            TaskView task = line.getTask();
+            addPlainText(nodes, plain);
+            Text summary = new Text(task.typeMarker() + task.statusMarker() + " " + task.getTitle());
+            summary.getStyleClass().add("task-summary");
+            nodes.add(summary);
+
+            // Details (not bold)
+            if (!task.getDetails().isEmpty()) {
+                plain.append(' ').append(task.getDetails());
             }
         }
-        
+        addPlainText(nodes, plain);
+
+        TextFlow textFlow = new TextFlow();
+        textFlow.getChildren().setAll(nodes);
         return textFlow;
     }
-}
\ No newline at end of file
+
+    private static void addPlainText(List<Node> nodes, StringBuilder plain) {
+        if (plain.length() == 0) {
+            return;
+        }
+        Text text = new Text(plain.toString());
+        text.getStyleClass().add("task-text");
+        nodes.add(text);
+        plain.setLength(0);
+    }
+}
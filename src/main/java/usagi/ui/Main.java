@@ -1,8 +1,13 @@
 package usagi.ui;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
@@ -12,15 +17,32 @@ import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
+/**
+ * Starts the GUI.
+ *
+ * The window is shown before the task file is loaded, which happens in the
+ * background. How long each phase of starting up took is logged once the tasks
+ * have loaded.
+ *
+ * Two system properties support scripted runs, such as the training run that
+ * records the class data sharing archive and the startup benchmark:
+ * "usagi.data" names the task file to use instead of data/usagi.txt, and
+ * "usagi.script" names a file of commands that are sent once the window is
+ * shown, after which the application exits.
+ */
 public class Main extends Application {
+    private static final String DATA_FILE = System.getProperty("usagi.data", "data/usagi.txt");
+    private static final String SCRIPT_FILE = System.getProperty("usagi.script");
 
-    private Usagi usagi = new Usagi("data/usagi.txt");
+    private MainWindow controller;
 
     @Override
     public void start(Stage stage) {
+        StartupTimer.mark("fx toolkit");
         try {
             FXMLLoader fxmlLoader = new FXMLLoader(Main.class.getResource("/view/MainWindow.fxml"));
             AnchorPane ap = fxmlLoader.load();
+            StartupTimer.mark("fxml");
             Scene scene = new Scene(ap);
             
             // Load CSS styles
@@ -38,14 +60,18 @@ public class Main extends Application {
             stage.setMinWidth(417);
             stage.setTitle("Usagi - Task Manager");
             
-            MainWindow controller = fxmlLoader.getController();
+            controller = fxmlLoader.getController();
             if (controller != null) {
-                controller.setUsagi(usagi);
+                controller.load(Main::loadUsagi);
+                if (SCRIPT_FILE != null) {
+                    runScript(controller);
+                }
             } else {
                 System.err.println("Warning: MainWindow controller is null");
             }
             
             stage.show();
+            StartupTimer.mark("window");
         } catch (IOException e) {
             System.err.println("Failed to load MainWindow FXML: " + e.getMessage());
             e.printStackTrace();
@@ -57,11 +83,46 @@ public class Main extends Application {
         }
     }
     
+    /**
+     * Loads the task file, on the background worker.
+     */
+    private static Usagi loadUsagi() {
+        long start = System.nanoTime();
+        try {
+            return new Usagi(DATA_FILE);
+        } finally {
+            StartupTimer.measure("load", start);
+            // Runs after start() has returned, so every phase has been recorded
+            Platform.runLater(StartupTimer::log);
+        }
+    }
+
+    /**
+     * Sends the commands in the script file, then exits.
+     */
+    private static void runScript(MainWindow controller) {
+        try {
+            List<String> inputs = Files.readAllLines(Path.of(SCRIPT_FILE), StandardCharsets.UTF_8);
+            controller.runScript(inputs, Platform::exit);
+        } catch (IOException e) {
+            System.err.println("Failed to read script " + SCRIPT_FILE + ": " + e.getMessage());
+            Platform.exit();
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
+
     /**
      * Creates a simple fallback UI if FXML loading fails.
      */
     private void createFallbackUI(Stage stage) {
         try {
+            Usagi usagi = new Usagi(DATA_FILE);
             VBox root = new VBox();
             TextField input = new TextField();
             Button sendButton = new Button("Send");
@@ -1,40 +1,116 @@
 package usagi.ui;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
-import javafx.scene.control.TextField;
+import javafx.scene.control.ListView;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 
 /**
- * Controller for the main GUI.
+ * Controller for the main GUI. Shows the transcript of the session and runs the
+ * commands the user sends without blocking the window.
  */
 public class MainWindow extends AnchorPane {
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<Message> transcript;
     @FXML
-    private TextField userInput;
+    private CommandField userInput;
     @FXML
     private Button sendButton;
 
-    private Usagi usagi;
+    private static final int MATERIALIZED_EXCHANGES = 100; // each is the user's input and the reply
+
+    private CommandRunner runner;
+    private Autocomplete autocomplete;
+    private final Transcript messages = new Transcript(2 * MATERIALIZED_EXCHANGES);
 
-    private Image userImage = new Image(this.getClass().getResourceAsStream("/images/user.png"));
-    private Image usagiImage = new Image(this.getClass().getResourceAsStream("/images/usagi.png"));
+    // Changes to the transcript waiting for the next pulse
+    private final List<Message> unflushedMessages = new ArrayList<>();
+    private final Map<Message, Message> unflushedReplies = new LinkedHashMap<>(); // keyed by placeholder
+    private final AnimationTimer flusher = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            flush();
+        }
+    };
+
+    // Decoded in the background; the pictures appear once they are ready
+    private Image userImage = new Image(this.getClass().getResource("/images/user.png").toExternalForm(), true);
+    private Image usagiImage = new Image(this.getClass().getResource("/images/usagi.png").toExternalForm(), true);
 
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        transcript.setItems(messages);
+        transcript.setCellFactory(list -> new MessageCell(userImage, usagiImage));
+        transcript.setFocusTraversable(false);
+        autocomplete = new Autocomplete(userInput);
+        userInput.setOnBatch(this::sendBatch);
+    }
+
+    /**
+     * Appends messages to the transcript at the next pulse.
+     */
+    private void append(Message... newMessages) {
+        unflushedMessages.addAll(List.of(newMessages));
+        flusher.start();
+    }
+
+    /**
+     * Puts the changes gathered since the last pulse into the transcript, and
+     * scrolls to the latest message if it changed.
+     */
+    private void flush() {
+        flusher.stop();
+        if (unflushedMessages.isEmpty() && unflushedReplies.isEmpty()) {
+            return;
+        }
+        boolean isLastChanged = messages.update(unflushedReplies, unflushedMessages);
+        unflushedMessages.clear();
+        unflushedReplies.clear();
+        if (isLastChanged) {
+            transcript.scrollTo(messages.size() - 1);
+        }
     }
 
     /** Injects the Usagi instance */
     public void setUsagi(Usagi u) {
-        usagi = u;
+        load(() -> u);
+    }
+
+    /**
+     * Starts loading Usagi in the background and shows a placeholder until it has loaded.
+     * Commands sent meanwhile run once it has.
+     *
+     * @param loader Creates the Usagi instance, such as by loading the task file
+     */
+    public void load(Supplier<Usagi> loader) {
+        runner = new CommandRunner(Platform::runLater);
+        autocomplete.setRunner(runner);
         showWelcomeMessage();
+        Message loading = Message.pending("Loading your tasks...");
+        append(loading);
+        runner.load(loader, reply -> replace(loading, reply));
+    }
+
+    /**
+     * Stops running commands once those already sent have finished, and deletes
+     * the messages moved to disk.
+     */
+    public void shutdown() {
+        flusher.stop();
+        if (runner != null) {
+            runner.shutdown();
+        }
+        messages.close();
     }
     
     /**
@@ -49,18 +125,16 @@ public class MainWindow extends AnchorPane {
                                "• Exit: bye\n\n" +
                                "Try typing 'list' to see your current tasks, or 'todo Buy groceries' to add a new task!";
         
-        dialogContainer.getChildren().add(
-            DialogBox.getUsagiDialog(welcomeMessage, usagiImage)
-        );
+        append(Message.reply(welcomeMessage));
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Usagi's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * Appends two messages to the transcript, one echoing user input and the other a placeholder
+     * that is replaced by Usagi's reply once the command has run. Clears the user input right away.
      */
     @FXML
     private void handleUserInput() {
-        if (usagi == null) {
+        if (runner == null) {
             System.err.println("Usagi instance not initialized");
             return;
         }
@@ -70,41 +144,68 @@ public class MainWindow extends AnchorPane {
             return; // Don't process empty input
         }
         
-        try {
-            String response = usagi.getResponse(input);
-            dialogContainer.getChildren().addAll(
-                    DialogBox.getUserDialog(input, userImage),
-                    createUsagiResponseDialog(response, usagiImage)
-            );
-            userInput.clear();
-        } catch (Exception e) {
-            // Handle errors with red error bubble
-            String errorMessage = e.getMessage() != null ? e.getMessage() : "An unexpected error occurred";
-            dialogContainer.getChildren().addAll(
-                    DialogBox.getUserDialog(input, userImage),
-                    DialogBox.getUsagiErrorDialog(errorMessage, usagiImage)
-            );
-            userInput.clear();
+        userInput.clear();
+        send(input);
+    }
+
+    /**
+     * Sends commands pasted at once to run as one batch, so the task file is
+     * written once for all of them. A placeholder after the last reply is
+     * replaced by the summary of the batch.
+     */
+    private void sendBatch(List<String> inputs) {
+        if (runner == null) {
+            System.err.println("Usagi instance not initialized");
+            return;
         }
+        List<Consumer<Message>> onReplies = new ArrayList<>();
+        for (String input : inputs) {
+            Message pending = Message.pending();
+            append(Message.fromUser(input), pending);
+            onReplies.add(reply -> replace(pending, reply));
+        }
+        Message summary = Message.pending();
+        append(summary);
+        runner.submitBatch(inputs, onReplies, reply -> replace(summary, reply));
     }
-    
+
+    private void send(String input) {
+        Message pending = Message.pending();
+        append(Message.fromUser(input), pending);
+        runner.submit(input, reply -> replace(pending, reply));
+    }
+
+    /**
+     * Sends commands as if the user had typed them, then runs an action once all
+     * of them have replied. Used for scripted runs such as training the class
+     * data sharing archive.
+     *
+     * @param inputs The commands
+     * @param onFinished Runs on the JavaFX application thread after the last reply is shown
+     */
+    public void runScript(List<String> inputs, Runnable onFinished) {
+        assert runner != null : "Usagi must be loaded first";
+        for (String input : inputs) {
+            if (!input.trim().isEmpty()) {
+                send(input);
+            }
+        }
+        runner.afterReplies(() -> {
+            flush();
+            onFinished.run();
+        });
+    }
+
     /**
-     * Creates an appropriate Usagi dialog based on the response content.
-     * If the response contains task information, uses formatted task display.
-     * Otherwise, uses regular dialog.
+     * Replaces a placeholder with the reply it was waiting for. Errors are shown with a red error bubble.
      */
-    private DialogBox createUsagiResponseDialog(String response, Image usagiImage) {
-        // Check if response contains task information
-        if (response != null && (response.contains("Here are your tasks") || 
-                                response.contains("Here are the matching tasks") ||
-                                response.contains("Got it. I've added this task") ||
-                                response.contains("Got it. I've added this recurring task") ||
-                                response.contains("Noted. I've removed this task") ||
-                                response.contains("Nice! I've marked this task as done") ||
-                                response.contains("OK, I've marked this task as not done yet"))) {
-            return DialogBox.getUsagiTaskDialog(response, usagiImage);
+    private void replace(Message pending, Message reply) {
+        int i = unflushedMessages.lastIndexOf(pending);
+        if (i >= 0) {
+            unflushedMessages.set(i, reply); // the placeholder was never shown
         } else {
-            return DialogBox.getUsagiDialog(response, usagiImage);
+            unflushedReplies.put(pending, reply);
         }
+        flusher.start();
     }
 }
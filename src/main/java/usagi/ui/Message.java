@@ -0,0 +1,123 @@
+package usagi.ui;
+
+import usagi.command.CommandResult;
+
+/**
+ * Represents one message in the chat transcript.
+ *
+ * The transcript keeps messages rather than the nodes that display them, so
+ * that only the messages on screen need nodes.
+ */
+public final class Message {
+    /**
+     * Who sent a message and how it is shown.
+     */
+    public enum Kind {
+        USER, REPLY, ERROR, PENDING
+    }
+
+    private final Kind kind;
+    private final String text; // null when the message has a result
+    private final CommandResult result;
+
+    private Message(Kind kind, String text, CommandResult result) {
+        this.kind = kind;
+        this.text = text;
+        this.result = result;
+    }
+
+    /**
+     * Creates a message typed by the user.
+     *
+     * @param text The input
+     * @return The message
+     */
+    public static Message fromUser(String text) {
+        return new Message(Kind.USER, text != null ? text : "", null);
+    }
+
+    /**
+     * Creates a plain text reply.
+     *
+     * @param text The reply
+     * @return The message
+     */
+    public static Message reply(String text) {
+        return new Message(Kind.REPLY, text != null ? text : "", null);
+    }
+
+    /**
+     * Creates a reply showing the result of a command.
+     *
+     * @param result The result
+     * @return The message
+     */
+    public static Message reply(CommandResult result) {
+        assert result != null : "Result cannot be null";
+        return new Message(Kind.REPLY, null, result);
+    }
+
+    /**
+     * Creates a reply reporting an error.
+     *
+     * @param text The error message
+     * @return The message
+     */
+    public static Message error(String text) {
+        return new Message(Kind.ERROR, text != null ? text : "", null);
+    }
+
+    /**
+     * Creates a placeholder for a reply that is still being worked out.
+     *
+     * @return The message
+     */
+    public static Message pending() {
+        return pending("...");
+    }
+
+    /**
+     * Creates a placeholder saying what is being worked out.
+     *
+     * @param text What the placeholder shows
+     * @return The message
+     */
+    public static Message pending(String text) {
+        return new Message(Kind.PENDING, text != null ? text : "...", null);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public boolean isFromUser() {
+        return kind == Kind.USER;
+    }
+
+    /**
+     * Returns whether the message lists tasks, which are shown formatted.
+     *
+     * @return true if the message is a result with task lines
+     */
+    public boolean hasTasks() {
+        return result != null && result.getKind() == CommandResult.Kind.TASKS;
+    }
+
+    /**
+     * Returns the command result shown by the message.
+     *
+     * @return The result, or null if the message is plain text
+     */
+    public CommandResult getResult() {
+        return result;
+    }
+
+    /**
+     * Returns the message as plain text, as it is copied to the clipboard.
+     *
+     * @return The text
+     */
+    public String getText() {
+        return result != null ? result.toString() : text;
+    }
+}
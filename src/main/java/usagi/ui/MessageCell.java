@@ -0,0 +1,42 @@
+package usagi.ui;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.image.Image;
+
+/**
+ * Displays a transcript message in the transcript list.
+ *
+ * The list only creates cells for the messages on screen and reuses them while
+ * scrolling, so a cell keeps one dialog box and shows whichever message it is
+ * given in it.
+ */
+class MessageCell extends ListCell<Message> {
+    private final DialogBox dialogBox = new DialogBox();
+    private final Image userImage;
+    private final Image usagiImage;
+
+    MessageCell(Image userImage, Image usagiImage) {
+        this.userImage = userImage;
+        this.usagiImage = usagiImage;
+        getStyleClass().add("message-cell");
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        // Let the list decide the width; the dialog box is stretched across it so that
+        // its alignment can put the bubble on the left or the right
+        setPrefWidth(0);
+        dialogBox.prefWidthProperty().bind(widthProperty());
+    }
+
+    @Override
+    protected void updateItem(Message message, boolean empty) {
+        super.updateItem(message, empty);
+        setText(null);
+        if (empty || message == null) {
+            setGraphic(null);
+            dialogBox.clear();
+            return;
+        }
+        dialogBox.show(message, message.isFromUser() ? userImage : usagiImage);
+        setGraphic(dialogBox);
+    }
+}
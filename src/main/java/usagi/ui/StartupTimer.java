@@ -0,0 +1,69 @@
+package usagi.ui;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Records how long each phase of starting the GUI takes and logs a summary,
+ * so that the time until the user can interact with the window can be tracked.
+ *
+ * Phases that run one after another are marked as they end, each lasting from
+ * the end of the previous one; the first lasts from the start of the process.
+ * Work done in the background alongside them is measured on its own.
+ */
+final class StartupTimer {
+    private static final List<String> phases = new ArrayList<>();
+    private static long lastMarkNanos = System.nanoTime();
+    private static boolean isFirstMark = true;
+    private static boolean isLogged;
+
+    private StartupTimer() {
+    }
+
+    /**
+     * Marks the end of a phase that ran after the previous one.
+     *
+     * @param phase The name of the phase
+     */
+    static synchronized void mark(String phase) {
+        long now = System.nanoTime();
+        long millis = (now - lastMarkNanos) / 1_000_000;
+        if (isFirstMark) {
+            // Until here the time since the process started, if the platform knows it
+            millis = sinceProcessStart().orElse(millis);
+            isFirstMark = false;
+        }
+        phases.add(phase + " " + millis + " ms");
+        lastMarkNanos = now;
+    }
+
+    /**
+     * Records the duration of work that ran alongside the other phases.
+     *
+     * @param task The name of the work
+     * @param startNanos When the work started, from {@link System#nanoTime()}
+     */
+    static synchronized void measure(String task, long startNanos) {
+        phases.add(task + " " + (System.nanoTime() - startNanos) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Logs the phases recorded so far, once per process.
+     */
+    static synchronized void log() {
+        if (isLogged) {
+            return;
+        }
+        isLogged = true;
+        String ready = sinceProcessStart().map(millis -> " (ready " + millis + " ms after launch)").orElse("");
+        System.out.println("Startup: " + String.join(", ", phases) + ready);
+    }
+
+    private static Optional<Long> sinceProcessStart() {
+        return ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()).toMillis());
+    }
+}
@@ -0,0 +1,169 @@
+package usagi.ui;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.collections.ObservableListBase;
+
+/**
+ * Holds the messages of the chat transcript, keeping only the most recent ones in memory.
+ *
+ * Once more than a given number of messages are kept, the oldest are moved to a
+ * {@link TranscriptLog} on disk. The list still has an entry for every message,
+ * so the transcript can be scrolled back through the whole session; a message
+ * that was moved to disk is read back when the list view asks for it, and the
+ * last few read are cached. Moving a message to disk does not change what the
+ * list holds, so no change is reported for it.
+ *
+ * Replies that are still pending are never moved to disk, so that they can be
+ * replaced, nor is any message after them. If the log cannot be written, all
+ * messages are kept in memory from then on.
+ *
+ * Like the list view showing it, a transcript is used from the JavaFX application thread only.
+ */
+class Transcript extends ObservableListBase<Message> {
+    private static final int RELOAD_CACHE_SIZE = 64; // more than fit on screen
+
+    private final int capacity;
+    private final List<Message> recent = new ArrayList<>();
+    private final Map<Integer, Message> reloaded = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Message> eldest) {
+            return size() > RELOAD_CACHE_SIZE;
+        }
+    };
+    private TranscriptLog log; // created when the first message is moved to disk
+    private boolean canSpill = true;
+
+    /**
+     * Constructs an empty transcript.
+     *
+     * @param capacity The most messages to keep in memory
+     */
+    Transcript(int capacity) {
+        assert capacity > 0 : "Capacity must be positive, got: " + capacity;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public Message get(int index) {
+        int spilled = spilled();
+        if (index >= spilled) {
+            return recent.get(index - spilled);
+        }
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+
+        Message message = reloaded.get(index);
+        if (message != null) {
+            return message;
+        }
+        try {
+            message = log.read(index);
+        } catch (IOException e) {
+            return Message.error("This message could not be reloaded: " + e.getMessage());
+        }
+        reloaded.put(index, message);
+        return message;
+    }
+
+    @Override
+    public int size() {
+        return spilled() + recent.size();
+    }
+
+    /**
+     * Returns the number of messages currently kept in memory.
+     *
+     * @return The number of messages not moved to disk
+     */
+    int materialized() {
+        return recent.size();
+    }
+
+    private int spilled() {
+        return log == null ? 0 : log.size();
+    }
+
+    /**
+     * Replaces pending replies with the replies they were waiting for, then appends
+     * messages, and reports all of it to the list view as a single change.
+     *
+     * @param replies The replies, keyed by their placeholders; a reply whose
+     *     placeholder is not in the transcript is appended instead
+     * @param additions The messages to append
+     * @return Whether the last message of the transcript is new or was replaced
+     */
+    boolean update(Map<Message, Message> replies, List<Message> additions) {
+        int spilled = spilled();
+        int last = size() - 1;
+        boolean isLastChanged = false;
+        beginChange();
+
+        // Placeholders are never moved to disk, and are usually among the latest messages
+        Map<Message, Message> unmatched = new IdentityHashMap<>(replies);
+        for (int i = recent.size() - 1; i >= 0 && !unmatched.isEmpty(); i--) {
+            Message reply = unmatched.remove(recent.get(i));
+            if (reply != null) {
+                nextSet(spilled + i, recent.set(i, reply));
+                isLastChanged |= spilled + i == last;
+            }
+        }
+
+        int from = size();
+        for (Map.Entry<Message, Message> entry : replies.entrySet()) {
+            if (unmatched.containsKey(entry.getKey())) {
+                recent.add(entry.getValue());
+            }
+        }
+        recent.addAll(additions);
+        if (size() > from) {
+            nextAdd(from, size());
+            isLastChanged = true;
+        }
+
+        endChange();
+        spill();
+        return isLastChanged;
+    }
+
+    /**
+     * Moves the oldest messages to disk until at most the capacity remains in memory.
+     */
+    private void spill() {
+        int count = 0;
+        try {
+            while (canSpill && recent.size() - count > capacity
+                    && recent.get(count).getKind() != Message.Kind.PENDING) {
+                if (log == null) {
+                    log = TranscriptLog.createTemp();
+                }
+                log.append(recent.get(count));
+                count++;
+            }
+        } catch (IOException e) {
+            System.err.println("Could not move old messages to disk, keeping them in memory: " + e.getMessage());
+            canSpill = false;
+        }
+        recent.subList(0, count).clear();
+    }
+
+    /**
+     * Deletes the messages moved to disk. The transcript should not be used afterwards.
+     */
+    void close() {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            System.err.println("Could not delete the session log: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package usagi.ui;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import usagi.command.CommandResult;
+import usagi.task.TaskView;
+
+/**
+ * Holds transcript messages that no longer need to be kept in memory, in an
+ * append-only file for the current session.
+ *
+ * Each message is written as one binary record. Only the offsets of the records
+ * are kept in memory, so any message can be read back on its own when the user
+ * scrolls to it.
+ */
+final class TranscriptLog implements Closeable {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final Path path;
+    private final RandomAccessFile file;
+    private long[] offsets = new long[INITIAL_CAPACITY]; // start of each record
+    private int size;
+    private long end;
+
+    /**
+     * Creates an empty log at the given path, replacing any file already there.
+     *
+     * @param path The file to write the log to
+     * @throws IOException If the file cannot be created
+     */
+    TranscriptLog(Path path) throws IOException {
+        this.path = path;
+        this.file = new RandomAccessFile(path.toFile(), "rw");
+        file.setLength(0);
+    }
+
+    /**
+     * Creates an empty log in a temporary file, which is deleted when the log is closed.
+     *
+     * @return The log
+     * @throws IOException If the file cannot be created
+     */
+    static TranscriptLog createTemp() throws IOException {
+        Path path = Files.createTempFile("usagi-session-", ".log");
+        path.toFile().deleteOnExit();
+        return new TranscriptLog(path);
+    }
+
+    /**
+     * Returns the number of messages in the log.
+     *
+     * @return The number of messages
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Appends a message to the end of the log.
+     *
+     * @param message The message
+     * @throws IOException If the message cannot be written
+     */
+    void append(Message message) throws IOException {
+        assert message != null : "Message cannot be null";
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        encode(message, new DataOutputStream(bytes));
+        file.seek(end);
+        file.write(bytes.toByteArray());
+
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+        }
+        offsets[size++] = end;
+        end += bytes.size();
+    }
+
+    /**
+     * Reads back the message at the given position.
+     *
+     * @param index The position of the message, counting from 0 in the order appended
+     * @return The message
+     * @throws IOException If the message cannot be read
+     */
+    Message read(int index) throws IOException {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("No message at " + index + " in a log of " + size);
+        }
+        long start = offsets[index];
+        long stop = index + 1 < size ? offsets[index + 1] : end;
+        byte[] record = new byte[(int) (stop - start)];
+        file.seek(start);
+        file.readFully(record);
+        return decode(new DataInputStream(new ByteArrayInputStream(record)));
+    }
+
+    /**
+     * Closes and deletes the log file.
+     *
+     * @throws IOException If the file cannot be closed or deleted
+     */
+    @Override
+    public void close() throws IOException {
+        file.close();
+        Files.deleteIfExists(path);
+    }
+
+    private static void encode(Message message, DataOutputStream out) throws IOException {
+        out.writeByte(message.getKind().ordinal());
+        CommandResult result = message.getResult();
+        out.writeBoolean(result != null);
+        if (result == null) {
+            writeString(out, message.getText());
+            return;
+        }
+
+        out.writeInt(result.getLines().size());
+        for (CommandResult.Line line : result.getLines()) {
+            writeString(out, line.getText());
+            out.writeBoolean(line.isTask());
+            if (line.isTask()) {
+                TaskView task = line.getTask();
+                writeString(out, task.getType());
+                out.writeBoolean(task.isDone());
+                writeString(out, task.getTitle());
+                writeString(out, task.getDetails());
+            }
+        }
+    }
+
+    private static Message decode(DataInputStream in) throws IOException {
+        Message.Kind kind = Message.Kind.values()[in.readUnsignedByte()];
+        if (in.readBoolean()) {
+            int count = in.readInt();
+            CommandResult.Builder result = CommandResult.builder();
+            for (int i = 0; i < count; i++) {
+                String text = readString(in);
+                if (in.readBoolean()) {
+                    result.task(text, new TaskView(readString(in), in.readBoolean(), readString(in),
+                            readString(in)));
+                } else {
+                    result.text(text);
+                }
+            }
+            return Message.reply(result.build());
+        }
+
+        String text = readString(in);
+        switch (kind) {
+        case USER:
+            return Message.fromUser(text);
+        case ERROR:
+            return Message.error(text);
+        case PENDING:
+            return Message.pending();
+        default:
+            return Message.reply(text);
+        }
+    }
+
+    // Unlike writeUTF, not limited to 64 KB
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
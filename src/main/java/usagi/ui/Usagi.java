@@ -9,7 +9,20 @@ package usagi.ui;
  * components of the system.
  */
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import usagi.command.CommandResult;
+import usagi.command.Suggestion;
+import usagi.service.TaskService;
 import usagi.storage.Storage;
 import usagi.task.TaskList;
 import usagi.parser.Parser;
@@ -19,6 +32,7 @@ public class Usagi {
     private Storage storage;
     private TaskList tasks;
     private Parser parser;
+    private TaskService service;
 
     /**
      * Constructs a new Usagi chatbot instance with the specified file path for data storage.
@@ -41,7 +55,66 @@ public class Usagi {
             System.out.println("Error loading tasks from file. Starting with empty task list.");
             tasks = new TaskList();
         }
+        catchUpRecurringTasks();
+        loadSavedSearches();
         parser = new Parser(tasks, storage);
+        service = parser.getService();
+        loadHistory();
+    }
+
+    /**
+     * Restores the undo history of the previous session.
+     */
+    private void loadHistory() {
+        try {
+            service.loadHistory();
+        } catch (UsagiException e) {
+            System.out.println("Error loading undo history: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Registers the saved searches from storage. Searches that can no longer
+     * be parsed are skipped.
+     */
+    private void loadSavedSearches() {
+        try {
+            for (Map.Entry<String, String> entry : storage.loadSearches().entrySet()) {
+                try {
+                    tasks.watch(entry.getKey(), entry.getValue());
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Skipping saved search " + entry.getKey() + ": " + e.getMessage());
+                }
+            }
+        } catch (UsagiException e) {
+            System.out.println("Error loading saved searches: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Advances recurring tasks that went stale while the application was closed,
+     * then persists the result with a single write if anything changed.
+     */
+    private void catchUpRecurringTasks() {
+        int advanced = tasks.catchUpRecurring(LocalDate.now());
+        if (advanced == 0) {
+            return;
+        }
+        try {
+            storage.save(tasks.all());
+        } catch (UsagiException e) {
+            System.out.println("Error saving caught-up recurring tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the typed API over this chatbot's tasks, for callers that want to
+     * manage tasks without going through text commands.
+     * 
+     * @return The task service
+     */
+    public TaskService getService() {
+        return service;
     }
 
     /**
@@ -53,11 +126,67 @@ public class Usagi {
      * @throws UsagiException if there's an error processing the input
      */
     public String getResponse(String input) throws UsagiException {
+        return getResult(input).toString();
+    }
+
+    /**
+     * Gets the structured response for the given input, so that a GUI can render
+     * the tasks in it without parsing the response text.
+     * 
+     * @param input The user input to process
+     * @return The response
+     * @throws UsagiException if there's an error processing the input
+     */
+    public CommandResult getResult(String input) throws UsagiException {
         if (Parser.isExit(input)) {
-            return "Goodbye! See you next time!";
+            if (parser.isBatching()) {
+                return CommandResult.message(parser.endBatch() + "\nGoodbye! See you next time!");
+            }
+            return CommandResult.message("Goodbye! See you next time!");
         }
         
-        return parser.handle(input);
+        return parser.evaluate(input);
+    }
+
+    /**
+     * Starts a batch, so that the task file is written once when it ends rather
+     * than after every command.
+     * 
+     * @throws UsagiException if a batch is already in progress
+     */
+    public void beginBatch() throws UsagiException {
+        parser.beginBatch();
+    }
+
+    /**
+     * Ends the current batch and saves the task list once if anything changed.
+     * 
+     * @return A summary of the batch
+     * @throws UsagiException if no batch is in progress or the save fails
+     */
+    public String endBatch() throws UsagiException {
+        return parser.endBatch();
+    }
+
+    /**
+     * Returns whether a batch is in progress.
+     * 
+     * @return true if a batch is in progress, false otherwise
+     */
+    public boolean isBatching() {
+        return parser.isBatching();
+    }
+
+    /**
+     * Suggests how to complete a partly typed command, such as the titles of
+     * matching tasks after "find", "mark" or "delete".
+     * 
+     * @param input The input typed so far
+     * @param limit The maximum number of suggestions
+     * @return The suggestions, possibly none
+     */
+    public List<Suggestion> suggest(String input, int limit) {
+        return parser.complete(input, limit);
     }
 
     /**
@@ -68,27 +197,66 @@ public class Usagi {
         System.out.println("Hello! I'm Usagi, your personal task manager.");
         System.out.println("What can I do for you?");
         Scanner scanner = new Scanner(System.in);
+        // Responses are streamed through a buffer and flushed once per command
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)));
         while (true) {
             String input = scanner.nextLine();
             if (Parser.isExit(input)) {
+                finishPendingBatch();
                 System.out.println("Bye. Hope to see you again soon!");
                 break;
             }
             try {
-                String response = parser.handle(input);
-                System.out.println(response);
+                parser.handle(input, out);
+                out.println();
             } catch (UsagiException e) {
-                System.out.println("Ura? (" + e.getMessage() + ")");
+                out.println("Ura? (" + e.getMessage() + ")");
             }
+            out.flush();
+        }
+    }
+
+    /**
+     * Ends a batch left open when the user exits, so its changes are saved.
+     */
+    private void finishPendingBatch() {
+        if (!parser.isBatching()) {
+            return;
+        }
+        try {
+            System.out.println(parser.endBatch());
+        } catch (UsagiException e) {
+            System.out.println("Ura? (" + e.getMessage() + ")");
+        }
+    }
+
+    /**
+     * Runs every command in the given script file as a single batch and prints a summary.
+     * 
+     * @param scriptPath The path to the file containing one command per line
+     */
+    public void runBatch(String scriptPath) {
+        try {
+            List<String> lines = Files.readAllLines(Path.of(scriptPath), StandardCharsets.UTF_8);
+            System.out.println(parser.runBatch(lines));
+        } catch (IOException e) {
+            System.out.println("Ura? (Cannot read batch file " + scriptPath + ")");
+        } catch (UsagiException e) {
+            System.out.println("Ura? (" + e.getMessage() + ")");
         }
     }
 
     /**
      * Main entry point for the Usagi chatbot application.
      * 
-     * @param args Command line arguments (not used)
+     * @param args Command line arguments; "--batch <file>" runs a script instead of the interactive loop
      */
     public static void main(String[] args) {
-        new Usagi("data/usagi.txt").run();
+        Usagi usagi = new Usagi("data/usagi.txt");
+        if (args.length == 2 && "--batch".equals(args[0])) {
+            usagi.runBatch(args[1]);
+        } else {
+            usagi.run();
+        }
     }
 }
@@ -0,0 +1,116 @@
+package usagi.command;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import usagi.task.TaskList;
+import usagi.task.ToDos;
+import usagi.storage.Storage;
+import usagi.exception.UsagiException;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class CommandFactoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private CommandFactory factory;
+
+    @BeforeEach
+    public void setUp() {
+        factory = new CommandFactory(new TaskList(), new Storage(tempDir.resolve("tasks.txt").toString()));
+    }
+
+    @Test
+    public void testCreateCommand_DispatchesOnFirstWord() throws Exception {
+        assertTrue(factory.createCommand("list") instanceof ListCommand);
+        assertTrue(factory.createCommand("mark 1") instanceof MarkCommand);
+        assertTrue(factory.createCommand("unmark 1") instanceof MarkCommand);
+        assertTrue(factory.createCommand("delete 1") instanceof DeleteCommand);
+        assertTrue(factory.createCommand("upcoming 3") instanceof UpcomingRecurringCommand);
+    }
+
+    @Test
+    public void testCreateCommand_KeywordInsideDescriptionIgnored() throws Exception {
+        assertTrue(factory.createCommand("todo bookmark page") instanceof AddTodoCommand);
+        assertTrue(factory.createCommand("todo undelete files") instanceof AddTodoCommand);
+    }
+
+    @Test
+    public void testCreateCommand_AliasPassesCanonicalKeyword() throws Exception {
+        factory.createCommand("todo read book").execute();
+        Command command = factory.createCommand("search  book");
+        assertTrue(command instanceof FindCommand);
+        assertTrue(command.execute().toString().contains("read book"));
+    }
+
+    @Test
+    public void testConflicts_AcceptsMultiWordDates() throws Exception {
+        assertTrue(factory.createCommand("conflicts next friday").execute().toString().startsWith("No conflicts"));
+        assertTrue(factory.createCommand("conflicts today end of month").execute().toString().startsWith("No conflicts"));
+        assertThrows(UsagiException.class, () -> factory.createCommand("conflicts next blursday").execute());
+    }
+
+    @Test
+    public void testFree_AcceptsMultiWordDates() throws Exception {
+        String result = factory.createCommand("free 1h between today end of month").execute().toString();
+        assertTrue(result.startsWith("Here are your free slots"));
+        assertThrows(UsagiException.class, () -> factory.createCommand("free 1h between tomorrow").execute());
+    }
+
+    @Test
+    public void testRecurring_ServiceErrorNotRewrapped() throws Exception {
+        Command command = factory.createCommand("recurring standup /from 2024-01-15 0900 /to 2024-01-15 0915 /every daily 400");
+        UsagiException e = assertThrows(UsagiException.class, () -> command.execute());
+        assertEquals("Interval too large, maximum allowed is 365", e.getMessage());
+    }
+
+    @Test
+    public void testCreateCommand_UnknownCommand() {
+        assertThrows(UsagiException.class, () -> factory.createCommand("marking 1"));
+    }
+
+    @Test
+    public void testRegister_CustomCommand() throws Exception {
+        factory.register("ping", (tasks, storage, input) -> () -> CommandResult.message("pong"), "p");
+        assertEquals("pong", factory.createCommand("p").execute().toString());
+    }
+
+    @Test
+    public void testRegister_DuplicateKeyword() {
+        assertThrows(IllegalArgumentException.class,
+            () -> factory.register("list", (tasks, storage, input) -> new ExitCommand()));
+    }
+
+    @Test
+    public void testRegister_DuplicateAliasRegistersNothing() {
+        assertThrows(IllegalArgumentException.class,
+            () -> factory.register("ping", (tasks, storage, input) -> new ExitCommand(), "p", "ls"));
+        assertThrows(UsagiException.class, () -> factory.createCommand("ping"));
+        assertThrows(UsagiException.class, () -> factory.createCommand("p"));
+    }
+
+    @Test
+    public void testComplete_KeywordsAndTitles() throws Exception {
+        TaskList tasks = new TaskList();
+        tasks.add(new ToDos("read book", false));
+        tasks.add(new ToDos("return book", false));
+        CommandFactory withTasks = new CommandFactory(tasks, new Storage(tempDir.resolve("tasks.txt").toString()));
+        
+        assertEquals(List.of("undo ", "unmark ", "unwatch "), inputs(withTasks.complete("un", 5)));
+        assertEquals(List.of("find return book", "find read book"), inputs(withTasks.complete("find re", 5)));
+        assertEquals(List.of("rm 1"), inputs(withTasks.complete("rm rea", 5)));
+        assertEquals("1. read book", withTasks.complete("mark rea", 5).get(0).getLabel());
+        assertTrue(withTasks.complete("mark 1", 5).isEmpty());
+        assertTrue(withTasks.complete("todo re", 5).isEmpty());
+    }
+
+    private static List<String> inputs(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::getInput).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,117 @@
+package usagi.parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import usagi.command.CommandResult;
+import usagi.task.TaskList;
+import usagi.storage.Storage;
+import usagi.exception.UsagiException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class ParserTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path filePath;
+    private TaskList tasks;
+    private Parser parser;
+
+    @BeforeEach
+    public void setUp() {
+        filePath = tempDir.resolve("tasks.txt");
+        tasks = new TaskList();
+        parser = new Parser(tasks, new Storage(filePath.toString()));
+    }
+
+    @Test
+    public void testRunBatch_ContinuesAfterErrors() throws Exception {
+        String summary = parser.runBatch(List.of("todo read book", "mark x", "", "nonsense", "todo write report"));
+        
+        assertEquals(2, tasks.size());
+        assertTrue(summary.contains("2 command(s) succeeded, 2 failed"));
+        assertTrue(summary.contains("Line 2:"));
+        assertTrue(summary.contains("Line 4:"));
+        assertEquals(2, Files.readAllLines(filePath).size());
+        assertFalse(parser.isBatching());
+    }
+
+    @Test
+    public void testRunBatch_SkipsBatchControlLines() throws Exception {
+        String summary = parser.runBatch(List.of("todo read book", "batch end", "todo write report", "batch begin"));
+        
+        assertEquals(2, tasks.size());
+        assertTrue(summary.contains("2 command(s) succeeded, 2 failed"));
+        assertTrue(summary.contains("Line 2:"));
+        assertTrue(summary.contains("Line 4:"));
+        assertEquals(2, Files.readAllLines(filePath).size());
+        assertFalse(parser.isBatching());
+    }
+
+    @Test
+    public void testBatchCommands_DeferSaveUntilEnd() throws Exception {
+        parser.handle("batch begin");
+        parser.handle("todo read book");
+        assertFalse(Files.exists(filePath));
+        
+        parser.handle("batch end");
+        assertEquals(1, Files.readAllLines(filePath).size());
+    }
+
+    @Test
+    public void testBatchEnd_WithoutBegin() {
+        assertThrows(UsagiException.class, () -> parser.handle("batch end"));
+    }
+
+    @Test
+    public void testMore_ContinuesLimitedFind() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            parser.handle("todo read book " + i);
+        }
+        
+        String first = parser.handle("find book --limit 2");
+        assertTrue(first.contains("1.[T][ ] read book 1"));
+        assertFalse(first.contains("read book 3"));
+        
+        String second = parser.handle("more");
+        assertTrue(second.contains("3.[T][ ] read book 3"));
+        assertThrows(UsagiException.class, () -> parser.handle("more"));
+    }
+
+    @Test
+    public void testMore_DiscardedByOtherCommand() throws Exception {
+        for (int i = 1; i <= 25; i++) {
+            parser.handle("todo task " + i);
+        }
+        parser.handle("list 1");
+        parser.handle("todo another task");
+        assertThrows(UsagiException.class, () -> parser.handle("more"));
+    }
+
+    @Test
+    public void testEvaluate_ReturnsTaskViews() throws Exception {
+        parser.handle("todo read book");
+        parser.handle("mark 1");
+        
+        CommandResult result = parser.evaluate("list");
+        assertEquals(CommandResult.Kind.TASKS, result.getKind());
+        CommandResult.Line line = result.getLines().get(1);
+        assertEquals("1.", line.getText());
+        assertEquals("read book", line.getTask().getTitle());
+        assertTrue(line.getTask().isDone());
+        assertEquals(parser.handle("list"), result.toString());
+    }
+
+    @Test
+    public void testEvaluate_PlainMessage() throws Exception {
+        CommandResult result = parser.evaluate("list");
+        assertEquals(CommandResult.Kind.MESSAGE, result.getKind());
+        assertEquals("You have no tasks in your list.", result.toString());
+    }
+}
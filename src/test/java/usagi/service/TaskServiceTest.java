@@ -0,0 +1,164 @@
+package usagi.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import usagi.task.DateAnchor;
+import usagi.task.TaskList;
+import usagi.task.TaskView;
+import usagi.storage.Storage;
+import usagi.exception.UsagiException;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class TaskServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Storage storage;
+    private TaskService service;
+
+    @BeforeEach
+    public void setUp() {
+        storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        service = new TaskService(new TaskList(), storage);
+    }
+
+    @Test
+    public void testAddDeadline_ReturnsViewAndSaves() throws Exception {
+        TaskView view = service.addDeadline("file taxes", LocalDateTime.of(2024, 4, 30, 23, 59));
+        
+        assertEquals("D", view.getType());
+        assertEquals("file taxes", view.getTitle());
+        assertFalse(view.isDone());
+        assertEquals(1, storage.load().size());
+    }
+
+    @Test
+    public void testMarkAndDelete_ById() throws Exception {
+        service.addTodo("read book");
+        service.addTodo("write report");
+        
+        assertTrue(service.mark(2).isDone());
+        assertTrue(storage.load().get(1).isDone());
+        assertEquals("read book", service.delete(1).getTitle());
+        assertEquals(1, service.size());
+        assertEquals(1, service.deleteDone().size());
+        assertEquals(0, storage.load().size());
+    }
+
+    @Test
+    public void testQuery_ReturnsViewsAndIds() throws Exception {
+        service.addTodo("weekly report");
+        service.addDeadline("quarterly report", LocalDateTime.of(2024, 3, 31, 0, 0));
+        
+        TaskService.QueryResult result = service.query("type:D report");
+        assertEquals(List.of(2), result.getIds());
+        assertEquals("quarterly report", result.getTasks().get(0).getTitle());
+    }
+
+    @Test
+    public void testUndoRedo_DeleteAndMark() throws Exception {
+        service.addTodo("read book");
+        service.addTodo("write report");
+        service.addTodo("buy milk");
+        service.mark(2);
+        service.deleteAll(List.of(1, 3));
+        
+        TaskService.Change undone = service.undo();
+        assertEquals("restored 2 task(s)", undone.getDescription());
+        assertEquals(3, service.size());
+        assertEquals("buy milk", service.get(3).getTitle());
+        assertFalse(service.undo().getTasks().get(0).isDone());
+        assertFalse(storage.load().get(1).isDone());
+        
+        assertTrue(service.redo().getTasks().get(0).isDone());
+        assertEquals("removed 2 task(s)", service.redo().getDescription());
+        assertEquals(1, storage.load().size());
+        assertThrows(UsagiException.class, () -> service.redo());
+    }
+
+    @Test
+    public void testUndo_SurvivesRestart() throws Exception {
+        service.addTodo("read book");
+        service.delete(1);
+        
+        TaskService restarted = new TaskService(new TaskList(storage.load()), storage);
+        restarted.loadHistory();
+        assertEquals("read book", restarted.undo().getTasks().get(0).getTitle());
+        assertEquals(1, storage.load().size());
+        restarted.undo();
+        assertThrows(UsagiException.class, () -> restarted.undo());
+    }
+
+    @Test
+    public void testUndo_LimitedToHistoryDepth() throws Exception {
+        TaskService shallow = new TaskService(new TaskList(), storage, 2);
+        for (int i = 1; i <= 5; i++) {
+            shallow.addTodo("task " + i);
+        }
+        
+        shallow.undo();
+        shallow.undo();
+        assertThrows(UsagiException.class, () -> shallow.undo());
+        assertEquals(3, shallow.size());
+    }
+
+    @Test
+    public void testUndo_DiscardsHistoryThatNoLongerMatches() throws Exception {
+        service.addTodo("read book");
+        
+        TaskService other = new TaskService(new TaskList(), storage);
+        other.loadHistory();
+        assertThrows(UsagiException.class, () -> other.undo());
+        assertThrows(UsagiException.class, () -> other.undo());
+        assertEquals(0, other.size());
+    }
+
+    @Test
+    public void testUndo_WorksWhenHistoryCannotBeSaved() throws Exception {
+        Storage failing = new Storage(tempDir.resolve("failing.txt").toString()) {
+            @Override
+            public void appendHistory(List<String> lines) throws UsagiException {
+                throw new UsagiException("disk full");
+            }
+
+            @Override
+            public void saveHistory(List<String> lines) throws UsagiException {
+                throw new UsagiException("disk full");
+            }
+        };
+        TaskService unsaved = new TaskService(new TaskList(), failing);
+        
+        assertEquals("read book", unsaved.addTodo("read book").getTitle());
+        assertEquals(1, failing.load().size());
+        assertTrue(unsaved.takeHistoryWarning().contains("disk full"));
+        assertNull(unsaved.takeHistoryWarning());
+        assertEquals("read book", unsaved.undo().getTasks().get(0).getTitle());
+        assertEquals(0, unsaved.size());
+    }
+
+    @Test
+    public void testInvalidArguments() throws Exception {
+        service.addTodo("read book");
+        
+        assertThrows(UsagiException.class, () -> service.addTodo("  "));
+        assertThrows(UsagiException.class, () -> service.mark(2));
+        assertThrows(UsagiException.class, () -> service.deleteAll(List.of(1, 5)));
+        assertThrows(UsagiException.class, () -> service.query("type:Z"));
+        assertEquals(1, service.size());
+    }
+
+    @Test
+    public void testWatch_SavesRelativeDatesAsDates() throws Exception {
+        service.watch("soon", "before:tomorrow");
+        
+        String tomorrow = DateAnchor.today().plusDays(1).toString();
+        assertEquals("before:" + tomorrow, storage.loadSearches().get("soon"));
+    }
+}
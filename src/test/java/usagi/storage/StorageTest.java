@@ -10,12 +10,14 @@ import usagi.task.Task;
 import usagi.task.ToDos;
 import usagi.task.Deadline;
 import usagi.task.Event;
+import usagi.task.TaskList;
 import usagi.exception.UsagiException;
 
 import java.nio.file.Path;
 import java.nio.file.Files;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public class StorageTest {
 
@@ -273,4 +275,39 @@ public class StorageTest {
         Storage customStorage = new Storage("/custom/path/tasks.txt");
         assertNotNull(customStorage);
     }
+
+    @Test
+    public void testDeferral_WritesOnceAtEnd() throws Exception {
+        storage.beginDeferral();
+        storage.save(List.of(new ToDos("read book", false)));
+        storage.save(List.of(new ToDos("read book", false), new ToDos("write report", false)));
+        assertFalse(Files.exists(testFilePath));
+        
+        assertTrue(storage.endDeferral());
+        assertEquals(2, storage.load().size());
+    }
+
+    @Test
+    public void testDeferral_NothingSaved() throws Exception {
+        storage.beginDeferral();
+        assertFalse(storage.endDeferral());
+        assertFalse(Files.exists(testFilePath));
+    }
+
+    @Test
+    public void testSaveSearches_RoundTrip() throws Exception {
+        TaskList tasks = new TaskList();
+        tasks.watch("due", "type:D done:false");
+        tasks.watch("reports", "title:\"weekly report\" sort:date");
+        storage.saveSearches(tasks.savedSearches());
+        
+        Map<String, String> loaded = storage.loadSearches();
+        assertEquals(List.of("due", "reports"), List.copyOf(loaded.keySet()));
+        assertEquals("title:\"weekly report\" sort:date", loaded.get("reports"));
+    }
+
+    @Test
+    public void testLoadSearches_NoFile() throws Exception {
+        assertTrue(storage.loadSearches().isEmpty());
+    }
 }
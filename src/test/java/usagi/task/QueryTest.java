@@ -0,0 +1,92 @@
+package usagi.task;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class QueryTest {
+
+    private TaskList tasks;
+
+    @BeforeEach
+    public void setUp() {
+        tasks = new TaskList();
+        tasks.add(new ToDos("weekly report", false));
+        tasks.add(new Deadline("quarterly report", false, LocalDateTime.of(2024, 3, 31, 23, 59)));
+        tasks.add(new Deadline("tax return", true, LocalDateTime.of(2024, 4, 30, 0, 0)));
+        tasks.add(new Deadline("annual report", false, LocalDateTime.of(2024, 12, 31, 0, 0)));
+        tasks.add(new Event("team offsite", false,
+            LocalDateTime.of(2024, 2, 1, 9, 0), LocalDateTime.of(2024, 2, 2, 17, 0)));
+    }
+
+    @Test
+    public void testQuery_CombinedTermsUseDateIndex() {
+        Query.Result result = tasks.query(Query.parse("type:D done:false before:2024-04-01 title:\"report\""));
+        
+        assertEquals(List.of(1), result.getIndices());
+        assertTrue(result.getPlan().startsWith("date index"));
+        assertEquals(2, result.getScanned());
+    }
+
+    @Test
+    public void testToText_ParsesBackWithRelativeDatesResolved() {
+        String tomorrow = DateAnchor.today().plusDays(1).toString();
+        
+        assertEquals("before:" + tomorrow + " (title:\"a b\" or not done:true) sort:date",
+                Query.parse("before:tomorrow (title:\"a b\" or -done:true) sort:date").toText());
+        assertEquals("sort:title", Query.parse("sort:title").toText());
+        String text = Query.parse("type:D or after:today limit:2").toText();
+        assertEquals(text, Query.parse(text).toText());
+    }
+
+    @Test
+    public void testQuery_TypeIndexChosenWhenCheapest() {
+        Query.Result result = tasks.query(Query.parse("type:E"));
+        
+        assertEquals("type index (E)", result.getPlan());
+        assertEquals(1, result.getScanned());
+        assertEquals("team offsite", result.getTasks().get(0).getTitle());
+    }
+
+    @Test
+    public void testQuery_OrAndNot() {
+        Query.Result result = tasks.query(Query.parse("type:T or done:true or (-type:D offsite)"));
+        
+        assertEquals(List.of(0, 2, 4), result.getIndices());
+        assertEquals("full scan", result.getPlan());
+    }
+
+    @Test
+    public void testQuery_LimitStopsEarlyInListOrder() {
+        Query.Result result = tasks.query(Query.parse("report limit:2"));
+        
+        assertEquals(List.of(0, 1), result.getIndices());
+        assertEquals(2, result.getScanned());
+    }
+
+    @Test
+    public void testQuery_SortByDate() {
+        Query.Result result = tasks.query(Query.parse("after:2024-01-01 sort:date"));
+        
+        assertEquals(List.of(4, 1, 2, 3), result.getIndices());
+    }
+
+    @Test
+    public void testQuery_IndexRefreshedAfterMark() {
+        assertEquals(1, tasks.query(Query.parse("done:true")).getTasks().size());
+        tasks.mark(1);
+        assertEquals(List.of(0, 2), tasks.query(Query.parse("done:true")).getIndices());
+    }
+
+    @Test
+    public void testParse_InvalidQuery() {
+        assertThrows(IllegalArgumentException.class, () -> Query.parse("type:X"));
+        assertThrows(IllegalArgumentException.class, () -> Query.parse("color:red"));
+        assertThrows(IllegalArgumentException.class, () -> Query.parse("title:\"unclosed"));
+        assertThrows(IllegalArgumentException.class, () -> Query.parse("(type:D"));
+        assertThrows(IllegalArgumentException.class, () -> Query.parse("or type:D"));
+    }
+}
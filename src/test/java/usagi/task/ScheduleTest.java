@@ -0,0 +1,116 @@
+package usagi.task;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+
+public class ScheduleTest {
+
+    private static final LocalDateTime WINDOW_START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime WINDOW_END = LocalDateTime.of(2024, 2, 1, 0, 0);
+
+    @Test
+    public void testFindConflicts_OverlappingEvents() {
+        Task first = new Event("meeting", false,
+            LocalDateTime.of(2024, 1, 10, 10, 0), LocalDateTime.of(2024, 1, 10, 12, 0));
+        Task second = new Event("lunch", false,
+            LocalDateTime.of(2024, 1, 10, 11, 30), LocalDateTime.of(2024, 1, 10, 13, 0));
+        
+        List<Schedule.Conflict> conflicts = Schedule.findConflicts(List.of(first, second), WINDOW_START, WINDOW_END);
+        assertEquals(1, conflicts.size());
+        assertEquals(first, conflicts.get(0).getFirst().getTask());
+        assertEquals(second, conflicts.get(0).getSecond().getTask());
+    }
+
+    @Test
+    public void testFindConflicts_TouchingEventsDoNotConflict() {
+        Task first = new Event("meeting", false,
+            LocalDateTime.of(2024, 1, 10, 10, 0), LocalDateTime.of(2024, 1, 10, 12, 0));
+        Task second = new Event("lunch", false,
+            LocalDateTime.of(2024, 1, 10, 12, 0), LocalDateTime.of(2024, 1, 10, 13, 0));
+        
+        assertTrue(Schedule.findConflicts(List.of(first, second), WINDOW_START, WINDOW_END).isEmpty());
+    }
+
+    @Test
+    public void testFindConflicts_RecurringSlotExpandedInWindow() {
+        Task standup = new RecurringTask("standup", false,
+            LocalDateTime.of(2024, 1, 1, 9, 0), LocalDateTime.of(2024, 1, 1, 9, 30),
+            RecurringTask.RecurrencePattern.DAILY);
+        Task review = new Event("review", false,
+            LocalDateTime.of(2024, 1, 15, 9, 15), LocalDateTime.of(2024, 1, 15, 10, 0));
+        
+        List<Schedule.Conflict> conflicts = Schedule.findConflicts(List.of(standup, review), WINDOW_START, WINDOW_END);
+        assertEquals(1, conflicts.size());
+        assertEquals(LocalDateTime.of(2024, 1, 15, 9, 0), conflicts.get(0).getFirst().getStart());
+    }
+
+    @Test
+    public void testConflictsWith_OnlyReportsOtherTasks() {
+        Task standup = new RecurringTask("standup", false,
+            LocalDateTime.of(2024, 1, 1, 9, 0), LocalDateTime.of(2024, 1, 1, 9, 30),
+            RecurringTask.RecurrencePattern.WEEKLY);
+        Task first = new Event("meeting", false,
+            LocalDateTime.of(2024, 1, 8, 9, 0), LocalDateTime.of(2024, 1, 8, 10, 0));
+        Task second = new Event("lunch", false,
+            LocalDateTime.of(2024, 1, 8, 9, 45), LocalDateTime.of(2024, 1, 8, 11, 0));
+        
+        List<TimeSlot> clashes = Schedule.conflictsWith(List.of(standup, first, second), first, WINDOW_START, WINDOW_END);
+        assertEquals(2, clashes.size());
+        assertEquals(standup, clashes.get(0).getTask());
+        assertEquals(second, clashes.get(1).getTask());
+    }
+
+    @Test
+    public void testSlotsBetween_StartOrder() {
+        Task late = new Event("late", false,
+            LocalDateTime.of(2024, 1, 20, 9, 0), LocalDateTime.of(2024, 1, 20, 10, 0));
+        Task early = new Event("early", false,
+            LocalDateTime.of(2024, 1, 5, 9, 0), LocalDateTime.of(2024, 1, 5, 10, 0));
+        Task outside = new Event("outside", false,
+            LocalDateTime.of(2024, 3, 5, 9, 0), LocalDateTime.of(2024, 3, 5, 10, 0));
+        
+        Iterator<TimeSlot> slots = Schedule.slotsBetween(List.of(late, early, outside), WINDOW_START, WINDOW_END);
+        assertEquals(early, slots.next().getTask());
+        assertEquals(late, slots.next().getTask());
+        assertFalse(slots.hasNext());
+    }
+
+    @Test
+    public void testFindFreeSlots_CoalescesOverlappingBusySlots() {
+        Task first = new Event("meeting", false,
+            LocalDateTime.of(2024, 1, 10, 9, 0), LocalDateTime.of(2024, 1, 10, 11, 0));
+        Task second = new Event("workshop", false,
+            LocalDateTime.of(2024, 1, 10, 10, 0), LocalDateTime.of(2024, 1, 10, 12, 0));
+        LocalDateTime from = LocalDateTime.of(2024, 1, 10, 8, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 1, 10, 18, 0);
+        
+        List<TimeSlot> free = Schedule.findFreeSlots(List.of(first, second), Duration.ofMinutes(30), from, to, 5);
+        assertEquals(2, free.size());
+        assertEquals(from, free.get(0).getStart());
+        assertEquals(LocalDateTime.of(2024, 1, 10, 9, 0), free.get(0).getEnd());
+        assertEquals(LocalDateTime.of(2024, 1, 10, 12, 0), free.get(1).getStart());
+        assertEquals(to, free.get(1).getEnd());
+        assertNull(free.get(1).getTask());
+    }
+
+    @Test
+    public void testFindFreeSlots_SkipsShortGapsAndRespectsLimit() {
+        Task standup = new RecurringTask("standup", false,
+            LocalDateTime.of(2024, 1, 1, 9, 0), LocalDateTime.of(2024, 1, 1, 17, 0),
+            RecurringTask.RecurrencePattern.DAILY);
+        Task lunch = new Event("lunch", false,
+            LocalDateTime.of(2024, 1, 2, 17, 30), LocalDateTime.of(2024, 1, 2, 23, 0));
+        
+        List<TimeSlot> free = Schedule.findFreeSlots(List.of(standup, lunch), Duration.ofHours(2),
+            LocalDateTime.of(2024, 1, 2, 0, 0), LocalDateTime.of(2024, 1, 10, 0, 0), 2);
+        assertEquals(2, free.size());
+        assertEquals(LocalDateTime.of(2024, 1, 2, 0, 0), free.get(0).getStart());
+        assertEquals(LocalDateTime.of(2024, 1, 2, 23, 0), free.get(1).getStart());
+        assertEquals(LocalDateTime.of(2024, 1, 3, 9, 0), free.get(1).getEnd());
+    }
+}
@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class TaskListTest {
 
@@ -274,4 +275,203 @@ public class TaskListTest {
         List<Task> tasksOnDate = taskList.tasksOn(targetDate);
         assertTrue(tasksOnDate.isEmpty());
     }
+
+    @Test
+    public void testCatchUpRecurring_AdvancesStaleTask() {
+        RecurringTask weekly = new RecurringTask("standup", false,
+            LocalDateTime.of(2024, 1, 1, 9, 0),
+            LocalDateTime.of(2024, 1, 1, 10, 0),
+            RecurringTask.RecurrencePattern.WEEKLY, 2);
+        taskList.add(weekly);
+        
+        int advanced = taskList.catchUpRecurring(LocalDate.of(2024, 2, 10));
+        assertEquals(1, advanced);
+        assertEquals(LocalDate.of(2024, 2, 12), weekly.getNextOccurrence());
+        assertEquals(3, weekly.getMissedOccurrences());
+    }
+
+    @Test
+    public void testCatchUpRecurring_MonthEndClamping() {
+        RecurringTask monthly = new RecurringTask("rent", false,
+            LocalDateTime.of(2024, 1, 31, 9, 0),
+            LocalDateTime.of(2024, 1, 31, 10, 0),
+            RecurringTask.RecurrencePattern.MONTHLY);
+        taskList.add(monthly);
+        
+        taskList.catchUpRecurring(LocalDate.of(2024, 3, 1));
+        assertEquals(LocalDate.of(2024, 3, 31), monthly.getNextOccurrence());
+        assertEquals(2, monthly.getMissedOccurrences());
+    }
+
+    @Test
+    public void testCatchUpRecurring_UpToDateTaskUntouched() {
+        RecurringTask daily = new RecurringTask("water plants", false,
+            LocalDateTime.of(2024, 5, 1, 8, 0),
+            LocalDateTime.of(2024, 5, 1, 8, 15),
+            RecurringTask.RecurrencePattern.DAILY);
+        taskList.add(daily);
+        taskList.add(new ToDos("read book", false));
+        
+        assertEquals(0, taskList.catchUpRecurring(LocalDate.of(2024, 5, 1)));
+        assertEquals(LocalDate.of(2024, 5, 1), daily.getNextOccurrence());
+        assertEquals(0, daily.getMissedOccurrences());
+    }
+
+    @Test
+    public void testFindPage_StopsAtLimit() {
+        for (int i = 1; i <= 5; i++) {
+            taskList.add(new ToDos("read book " + i, false));
+        }
+        
+        TaskList.Page page = taskList.find("book", 0, 2);
+        assertEquals(2, page.getTasks().size());
+        assertTrue(page.hasMore());
+        assertEquals(2, page.getNextIndex());
+        
+        TaskList.Page rest = taskList.find("book", page.getNextIndex(), 10);
+        assertEquals(3, rest.getTasks().size());
+        assertFalse(rest.hasMore());
+    }
+
+    @Test
+    public void testTasksOnPage_ResumesFromIndex() {
+        LocalDate targetDate = LocalDate.of(2023, 12, 25);
+        taskList.add(new Deadline("first", false, LocalDateTime.of(2023, 12, 25, 9, 0)));
+        taskList.add(new ToDos("read book", false));
+        taskList.add(new Deadline("second", false, LocalDateTime.of(2023, 12, 25, 10, 0)));
+        
+        TaskList.Page page = taskList.tasksOn(targetDate, 1, 5);
+        assertEquals(1, page.getTasks().size());
+        assertEquals("second", page.getTasks().get(0).getTitle());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    public void testSavedSearch_MaintainedOnChanges() {
+        taskList.add(new ToDos("write report", false));
+        taskList.add(new ToDos("read book", false));
+        SavedSearch search = taskList.watch("open", "done:false report");
+        assertEquals(1, search.size());
+        
+        taskList.add(new ToDos("draft report", false));
+        assertEquals(2, search.size());
+        
+        taskList.mark(1);
+        assertEquals(1, search.size());
+        assertEquals("draft report", search.results().get(0).getTitle());
+        
+        taskList.unmark(1);
+        taskList.delete(3);
+        assertEquals(1, search.size());
+        assertEquals("write report", search.results().get(0).getTitle());
+    }
+
+    @Test
+    public void testSavedSearch_KeepsListOrder() {
+        taskList.add(new ToDos("report a", true));
+        taskList.add(new ToDos("report b", false));
+        SavedSearch search = taskList.watch("reports", "report");
+        taskList.add(new ToDos("report c", false));
+        
+        taskList.unmark(1);
+        assertEquals(List.of("report a", "report b", "report c"),
+            search.results().stream().map(Task::getTitle).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testDeleteAll_CompactsOnce() {
+        for (int i = 1; i <= 6; i++) {
+            taskList.add(new ToDos("task " + i, false));
+        }
+        
+        List<Task> removed = taskList.deleteAll(List.of(2, 4, 5));
+        assertEquals(3, removed.size());
+        assertEquals("task 2", removed.get(0).getTitle());
+        assertEquals(3, taskList.size());
+        assertEquals("task 6", taskList.get(3).getTitle());
+    }
+
+    @Test
+    public void testDeleteAll_InvalidIndexChangesNothing() {
+        taskList.add(new ToDos("task 1", false));
+        taskList.add(new ToDos("task 2", false));
+        
+        assertThrows(IndexOutOfBoundsException.class, () -> taskList.deleteAll(List.of(1, 3)));
+        assertEquals(2, taskList.size());
+    }
+
+    @Test
+    public void testInsertAll_RestoresDeletedTasksInOrder() {
+        for (int i = 1; i <= 5; i++) {
+            taskList.add(new ToDos("task " + i, false));
+        }
+        SavedSearch search = taskList.watch("all", "task");
+        
+        List<Task> removed = taskList.deleteAll(List.of(1, 3, 5));
+        taskList.insertAll(List.of(1, 3, 5), removed);
+        assertEquals(5, taskList.size());
+        for (int i = 1; i <= 5; i++) {
+            assertEquals("task " + i, taskList.get(i).getTitle());
+        }
+        assertEquals(taskList.all(), search.results());
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> taskList.insertAll(List.of(8), List.of(new ToDos("task 8", false))));
+    }
+
+    @Test
+    public void testDeleteIf_RemovesCompletedTasks() {
+        taskList.add(new ToDos("task 1", true));
+        taskList.add(new ToDos("task 2", false));
+        taskList.add(new ToDos("task 3", true));
+        SavedSearch search = taskList.watch("all", "task");
+        
+        assertEquals(2, taskList.deleteIf(Task::isDone).size());
+        assertEquals(1, taskList.size());
+        assertEquals(1, search.size());
+    }
+
+    @Test
+    public void testMarkAll_MarksEveryTask() {
+        for (int i = 1; i <= 4; i++) {
+            taskList.add(new ToDos("task " + i, false));
+        }
+        
+        taskList.markAll(List.of(1, 2, 3));
+        assertEquals(3, taskList.deleteIf(Task::isDone).size());
+        
+        taskList.markAll(List.of(1));
+        taskList.unmarkAll(List.of(1));
+        assertFalse(taskList.get(1).isDone());
+    }
+
+    @Test
+    public void testCompleteTitle_MostRecentlyUsedFirst() {
+        taskList.add(new ToDos("read book", false));
+        taskList.add(new ToDos("Review report", false));
+        taskList.add(new ToDos("write report", false));
+        taskList.add(new ToDos("read book", false));
+        
+        List<Task> titles = taskList.completeTitle("RE", 5);
+        assertEquals(2, titles.size());
+        assertEquals(4, taskList.indexOf(titles.get(0)));
+        assertEquals("Review report", titles.get(1).getTitle());
+        
+        taskList.mark(1);
+        assertEquals(1, taskList.indexOf(taskList.completeTitle("re", 1).get(0)));
+        assertTrue(taskList.completeTitle("rex", 5).isEmpty());
+    }
+
+    @Test
+    public void testCompleteTitle_FollowsDeletes() {
+        taskList.add(new ToDos("read", false));
+        taskList.add(new ToDos("reading list", false));
+        taskList.add(new ToDos("read", false));
+        
+        taskList.delete(3);
+        assertEquals("read", taskList.completeTitle("rea", 5).get(1).getTitle());
+        taskList.deleteAll(List.of(1));
+        assertEquals(1, taskList.completeTitle("rea", 5).size());
+        assertEquals(1, taskList.indexOf(taskList.completeTitle("read", 5).get(0)));
+        assertEquals(-1, taskList.indexOf(new ToDos("read", false)));
+    }
 }
@@ -73,6 +73,70 @@ public class TaskTest {
         });
     }
 
+    @Test
+    public void testParseDateTimeFlexible_ISOWithSeconds() {
+        LocalDateTime result = Task.parseDateTimeFlexible("2023-12-25T14:30:15");
+        assertEquals(LocalDateTime.of(2023, 12, 25, 14, 30, 15), result);
+    }
+
+    @Test
+    public void testParseDateTimeFlexible_ISOWithFractionalSeconds() {
+        LocalDateTime result = Task.parseDateTimeFlexible("2023-12-25T14:30:15.5");
+        assertEquals(LocalDateTime.of(2023, 12, 25, 14, 30, 15, 500_000_000), result);
+    }
+
+    @Test
+    public void testParseDateTimeFlexible_MDYWithTime() {
+        LocalDateTime result = Task.parseDateTimeFlexible("12/25/2023 0905");
+        assertEquals(LocalDateTime.of(2023, 12, 25, 9, 5), result);
+    }
+
+    @Test
+    public void testParseDateTimeFlexible_InvalidTime() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            Task.parseDateTimeFlexible("2023-12-25 1460");
+        });
+    }
+
+    @Test
+    public void testParseDateFlexible_DayClampedToEndOfMonth() {
+        assertEquals(LocalDate.of(2023, 4, 30), Task.parseDateFlexible("31/4/2023"));
+    }
+
+    @Test
+    public void testParseDateTimeFlexible_RelativePhrases() {
+        LocalDate today = LocalDate.of(2024, 2, 14); // a Wednesday
+        assertEquals(LocalDateTime.of(2024, 2, 15, 14, 0), Task.parseDateTimeFlexible("tomorrow 1400", today));
+        assertEquals(LocalDateTime.of(2024, 2, 16, 0, 0), Task.parseDateTimeFlexible("next fri", today));
+        assertEquals(LocalDateTime.of(2024, 2, 21, 9, 30), Task.parseDateTimeFlexible("Wednesday 0930", today));
+        assertEquals(LocalDateTime.of(2024, 3, 6, 0, 0), Task.parseDateTimeFlexible("in 3 weeks", today));
+        assertEquals(LocalDateTime.of(2024, 2, 29, 23, 59), Task.parseDateTimeFlexible("end of month 2359", today));
+    }
+
+    @Test
+    public void testParseDateFlexible_RelativePhrases() {
+        LocalDate today = LocalDate.of(2024, 2, 14);
+        assertEquals(today, Task.parseDateFlexible("today", today));
+        assertEquals(LocalDate.of(2024, 2, 15), Task.parseDateFlexible("TMR", today));
+        assertEquals(LocalDate.of(2024, 2, 24), Task.parseDateFlexible("in 10 days", today));
+        assertEquals(LocalDate.of(2024, 2, 18), Task.parseDateFlexible("end of week", today));
+    }
+
+    @Test
+    public void testParseDateTimeFlexible_UnknownRelativePhrase() {
+        LocalDate today = LocalDate.of(2024, 2, 14);
+        assertThrows(IllegalArgumentException.class, () -> Task.parseDateTimeFlexible("next blursday", today));
+        assertThrows(IllegalArgumentException.class, () -> Task.parseDateTimeFlexible("tomorrow 2460", today));
+        assertThrows(IllegalArgumentException.class, () -> Task.parseDateFlexible("tomorrow 1400", today));
+    }
+
+    @Test
+    public void testParseDateFlexible_InvalidISODate() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            Task.parseDateFlexible("2023-02-30");
+        });
+    }
+
     @Test
     public void testFromLine_Todo() {
         String line = "T | 0 | read book";
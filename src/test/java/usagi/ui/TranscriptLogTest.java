@@ -0,0 +1,53 @@
+package usagi.ui;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import usagi.command.CommandResult;
+import usagi.task.TaskView;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class TranscriptLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testReadBack_InAnyOrder() throws Exception {
+        CommandResult.Builder result = CommandResult.builder();
+        result.text("Here are the tasks in your list:");
+        result.task("1.", new TaskView("D", true, "return book", "(by: Feb 14 2024 18:00)"));
+        
+        try (TranscriptLog log = new TranscriptLog(tempDir.resolve("session.log"))) {
+            log.append(Message.fromUser("list"));
+            log.append(Message.reply(result.build()));
+            log.append(Message.error("Task number is out of range"));
+            
+            assertEquals(3, log.size());
+            Message error = log.read(2);
+            assertEquals(Message.Kind.ERROR, error.getKind());
+            assertEquals("Task number is out of range", error.getText());
+            Message reply = log.read(1);
+            assertTrue(reply.hasTasks());
+            assertEquals(result.build().toString(), reply.getText());
+            assertEquals("return book", reply.getResult().getLines().get(1).getTask().getTitle());
+            assertTrue(log.read(0).isFromUser());
+        }
+    }
+
+    @Test
+    public void testLongMessageAndClose() throws Exception {
+        Path path = tempDir.resolve("session.log");
+        String text = "a very long reply ".repeat(5000);
+        
+        TranscriptLog log = new TranscriptLog(path);
+        log.append(Message.reply(text));
+        assertEquals(text, log.read(0).getText());
+        assertThrows(IndexOutOfBoundsException.class, () -> log.read(1));
+        log.close();
+        assertFalse(Files.exists(path));
+    }
+}